@@ -0,0 +1,164 @@
+package com.backpack.bpweb.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Etapa de build dos arquivos estáticos, executada pelo Maven em {@code prepare-package}
+ * sobre {@code target/classes/static}, depois da cópia dos recursos:
+ *
+ * <ol>
+ *     <li>copia cada CSS, JS e imagem para {@code dist/} com o hash do conteúdo no nome
+ *     ({@code js/main.js} vira {@code dist/js/main.3f2a1b9c0d4e.js});</li>
+ *     <li>reescreve os {@code src} e {@code href} das páginas HTML para as cópias com hash.
+ *     O HTML é lido de {@code src/main/resources/static}, então rodar de novo sobre um
+ *     {@code target} antigo dá o mesmo resultado;</li>
+ *     <li>grava as variantes {@code .gz} e {@code .br} de todo arquivo de texto, quando
+ *     ficam menores que o original.</li>
+ * </ol>
+ *
+ * <p>Os arquivos originais continuam no lugar, então rodar a aplicação sem esta etapa
+ * (pela IDE ou com {@code spring-boot:run}) funciona como antes, só sem os ganhos.</p>
+ *
+ * <p>Uso: {@code java PipelineAssets.java <static de origem> <static de saída>}.</p>
+ */
+public class PipelineAssets {
+
+    private static final Set<String> COM_HASH = Set.of("css", "js", "png", "jpg", "jpeg", "gif", "svg", "ico", "webp", "woff", "woff2");
+    private static final Set<String> COMPRIMIVEIS = Set.of("html", "css", "js", "svg", "json", "txt", "ico");
+    private static final int TAMANHO_MINIMO_COMPRESSAO = 1024;
+    private static final Pattern REFERENCIA = Pattern.compile("(src|href)=\"(?!https?:|//|#|data:)/?([^\"?#]+)\"");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Uso: PipelineAssets <static de origem> <static de saída>");
+        }
+        Path origem = Path.of(args[0]);
+        Path saida = Path.of(args[1]);
+        Path dist = saida.resolve("dist");
+        apagar(dist);
+        Brotli4jLoader.ensureAvailability();
+
+        Map<String, String> comHash = new TreeMap<>();
+        for (Path arquivo : listar(saida)) {
+            String relativo = relativo(saida, arquivo);
+            if (COM_HASH.contains(extensao(relativo)) && !relativo.startsWith("dist/")) {
+                String destino = "dist/" + nomeComHash(relativo, Files.readAllBytes(arquivo));
+                Files.createDirectories(saida.resolve(destino).getParent());
+                Files.copy(arquivo, saida.resolve(destino));
+                comHash.put(relativo, destino);
+            }
+        }
+
+        for (Path arquivo : listar(origem)) {
+            String relativo = relativo(origem, arquivo);
+            if (extensao(relativo).equals("html")) {
+                String html = Files.readString(arquivo, StandardCharsets.UTF_8);
+                Files.writeString(saida.resolve(relativo), reescrever(html, comHash), StandardCharsets.UTF_8);
+            }
+        }
+
+        int variantes = 0;
+        for (Path arquivo : listar(saida)) {
+            String relativo = relativo(saida, arquivo);
+            if (COMPRIMIVEIS.contains(extensao(relativo)) && Files.size(arquivo) >= TAMANHO_MINIMO_COMPRESSAO) {
+                byte[] conteudo = Files.readAllBytes(arquivo);
+                variantes += gravarSeMenor(arquivo, ".gz", gzip(conteudo), conteudo.length);
+                variantes += gravarSeMenor(arquivo, ".br", Encoder.compress(conteudo, new Encoder.Parameters().setQuality(11)), conteudo.length);
+            }
+        }
+        System.out.printf("PipelineAssets: %d arquivos com hash, %d variantes comprimidas%n", comHash.size(), variantes);
+    }
+
+    private static String reescrever(String html, Map<String, String> comHash) {
+        Matcher matcher = REFERENCIA.matcher(html);
+        StringBuilder resultado = new StringBuilder(html.length());
+        while (matcher.find()) {
+            String destino = comHash.get(matcher.group(2));
+            String substituto = destino != null ? matcher.group(1) + "=\"/" + destino + "\"" : matcher.group();
+            matcher.appendReplacement(resultado, Matcher.quoteReplacement(substituto));
+        }
+        matcher.appendTail(resultado);
+        return resultado.toString();
+    }
+
+    private static String nomeComHash(String relativo, byte[] conteudo) {
+        try {
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo)).substring(0, 12);
+            int ponto = relativo.lastIndexOf('.');
+            return relativo.substring(0, ponto) + "." + hash + relativo.substring(ponto);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int gravarSeMenor(Path arquivo, String sufixo, byte[] comprimido, int tamanhoOriginal) throws IOException {
+        Path variante = arquivo.resolveSibling(arquivo.getFileName() + sufixo);
+        if (comprimido.length >= tamanhoOriginal) {
+            Files.deleteIfExists(variante);
+            return 0;
+        }
+        Files.write(variante, comprimido);
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] conteudo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(conteudo.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(conteudo);
+        }
+        return saida.toByteArray();
+    }
+
+    private static List<Path> listar(Path raiz) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(raiz)) {
+            return arquivos.filter(Files::isRegularFile)
+                    .filter(arquivo -> !arquivo.toString().endsWith(".gz") && !arquivo.toString().endsWith(".br"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void apagar(Path diretorio) throws IOException {
+        if (!Files.exists(diretorio)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> {
+                try {
+                    Files.delete(arquivo);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static String relativo(Path raiz, Path arquivo) {
+        return raiz.relativize(arquivo).toString().replace('\\', '/');
+    }
+
+    private static String extensao(String relativo) {
+        int ponto = relativo.lastIndexOf('.');
+        return ponto < 0 ? "" : relativo.substring(ponto + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,168 @@
+package com.backpack.bpweb.chore.aulas;
+
+import com.backpack.bpweb.chore.busca.ConsultaTextoCompleto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a busca antiga de aulas ({@code LIKE '%termo%'} sobre título e descrição, sem índice possível)
+ * com a busca em texto completo da V12 (coluna {@code busca} com índice GIN e ranking). Cada chamada faz
+ * o que o {@code Page} do Spring Data faz: a página de 20 e a contagem total.
+ *
+ * <p>Precisa de um PostgreSQL de verdade e <b>apaga e recria</b> as tabelas {@code aulas} e {@code resumos}
+ * do banco informado, então use um banco descartável:
+ * {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="BuscaAulasBenchmark -jvmArgs -Dbusca.benchmark.url=jdbc:postgresql://localhost:5432/bpweb_benchmark"}.
+ * Usuário e senha vêm de {@code DB_USER} e {@code DB_PASS}, como na aplicação.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuscaAulasBenchmark {
+
+    // Mesmas consultas de AulaRepository.findWithFilters e AulaRepository.buscarPorTexto, sem filtro de matéria.
+    // O LIKE ordena por título, como a listagem pede: assim os dois lados ordenam todos os resultados
+    // antes de cortar a página, e nenhum para no vigésimo encontrado.
+    private static final String LIKE_PAGINA = "SELECT a.* FROM aulas a " +
+            "WHERE LOWER(CAST(a.titulo AS TEXT)) LIKE LOWER(CONCAT('%', ?, '%')) OR LOWER(CAST(a.descricao AS TEXT)) LIKE LOWER(CONCAT('%', ?, '%')) " +
+            "ORDER BY a.titulo, a.id LIMIT 20";
+    private static final String LIKE_CONTAGEM = "SELECT COUNT(*) FROM aulas a " +
+            "WHERE LOWER(CAST(a.titulo AS TEXT)) LIKE LOWER(CONCAT('%', ?, '%')) OR LOWER(CAST(a.descricao AS TEXT)) LIKE LOWER(CONCAT('%', ?, '%'))";
+    private static final String TEXTO_PAGINA = "SELECT a.* FROM aulas a, to_tsquery('portuguese_unaccent', ?) q " +
+            "WHERE a.busca @@ q ORDER BY ts_rank_cd(a.busca, q) DESC, a.id LIMIT 20";
+    private static final String TEXTO_CONTAGEM = "SELECT COUNT(*) FROM aulas a " +
+            "WHERE a.busca @@ to_tsquery('portuguese_unaccent', ?)";
+
+    private static final String[] VOCABULARIO = {
+            "função", "equação", "análise", "história", "geografia", "química", "física", "biologia", "revolução",
+            "período", "matemática", "gramática", "literatura", "célula", "energia", "movimento", "síntese", "reação",
+            "ácido", "império", "república", "território", "população", "clima", "vegetação", "relevo", "potência",
+            "trabalho", "força", "velocidade", "aceleração", "gravidade", "óptica", "eletricidade", "magnetismo",
+            "genética", "evolução", "ecologia", "fotossíntese", "respiração", "sistema", "digestório", "nervoso",
+            "circulatório", "verbo", "sujeito", "predicado", "oração", "concordância", "regência", "crase", "poesia",
+            "romantismo", "modernismo", "barroco", "probabilidade", "estatística", "geometria", "trigonometria",
+            "logaritmo", "polinômio", "matriz", "derivada", "industrial", "colonização", "independência"
+    };
+
+    @Param({"10000", "100000"})
+    public int tamanhoCatalogo;
+
+    /** Um termo comum e um raro; o vocabulário é sorteado com viés para o começo da lista. */
+    @Param({"energia", "independência"})
+    public String termo;
+
+    private Connection conexao;
+    private PreparedStatement likePagina;
+    private PreparedStatement likeContagem;
+    private PreparedStatement textoPagina;
+    private PreparedStatement textoContagem;
+
+    @Setup
+    public void montar() throws SQLException, IOException {
+        conexao = DriverManager.getConnection(
+                System.getProperty("busca.benchmark.url", "jdbc:postgresql://localhost:5432/bpweb_benchmark"),
+                System.getenv("DB_USER"), System.getenv("DB_PASS"));
+
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS aulas, resumos");
+            statement.execute("CREATE TABLE aulas (id SERIAL PRIMARY KEY, titulo VARCHAR(255) NOT NULL, descricao TEXT, materia_id INT)");
+            statement.execute("CREATE TABLE resumos (id SERIAL PRIMARY KEY, titulo VARCHAR(255) NOT NULL, conteudo TEXT NOT NULL, materia_id INT)");
+        }
+        popular();
+        try (Statement statement = conexao.createStatement()) {
+            // A própria migração: configuração, colunas geradas e índices ficam iguais aos da aplicação.
+            statement.execute(lerMigracao());
+            statement.execute("ANALYZE aulas");
+        }
+
+        likePagina = conexao.prepareStatement(LIKE_PAGINA);
+        likeContagem = conexao.prepareStatement(LIKE_CONTAGEM);
+        textoPagina = conexao.prepareStatement(TEXTO_PAGINA);
+        textoContagem = conexao.prepareStatement(TEXTO_CONTAGEM);
+    }
+
+    @TearDown
+    public void fechar() throws SQLException {
+        conexao.close();
+    }
+
+    @Benchmark
+    public long like() throws SQLException {
+        likePagina.setString(1, termo);
+        likePagina.setString(2, termo);
+        likeContagem.setString(1, termo);
+        likeContagem.setString(2, termo);
+        return consumir(likePagina) + contar(likeContagem);
+    }
+
+    @Benchmark
+    public long textoCompleto() throws SQLException {
+        String consulta = ConsultaTextoCompleto.prefixada(termo);
+        textoPagina.setString(1, consulta);
+        textoContagem.setString(1, consulta);
+        return consumir(textoPagina) + contar(textoContagem);
+    }
+
+    private void popular() throws SQLException {
+        SplittableRandom random = new SplittableRandom(42);
+        conexao.setAutoCommit(false);
+        try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO aulas (titulo, descricao, materia_id) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= tamanhoCatalogo; i++) {
+                insert.setString(1, frase(random, 4));
+                insert.setString(2, frase(random, 40));
+                insert.setInt(3, 1 + random.nextInt(20));
+                insert.addBatch();
+                if (i % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        conexao.commit();
+        conexao.setAutoCommit(true);
+    }
+
+    private static String frase(SplittableRandom random, int palavras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            double sorteio = random.nextDouble();
+            // Quadrado do sorteio: as primeiras palavras aparecem bem mais que as últimas.
+            frase.append(i == 0 ? "" : " ").append(VOCABULARIO[(int) (sorteio * sorteio * VOCABULARIO.length)]);
+        }
+        return frase.toString();
+    }
+
+    private static String lerMigracao() throws IOException {
+        try (InputStream in = BuscaAulasBenchmark.class.getResourceAsStream("/db/migration/V12__Add-busca-texto-completo.sql")) {
+            if (in == null) {
+                throw new IllegalStateException("Migração V12 não encontrada no classpath.");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long consumir(PreparedStatement consulta) throws SQLException {
+        long soma = 0;
+        try (ResultSet rs = consulta.executeQuery()) {
+            while (rs.next()) {
+                soma += rs.getInt("id");
+            }
+        }
+        return soma;
+    }
+
+    private static long contar(PreparedStatement consulta) throws SQLException {
+        try (ResultSet rs = consulta.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
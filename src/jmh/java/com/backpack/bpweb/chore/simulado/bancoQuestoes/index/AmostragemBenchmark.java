@@ -0,0 +1,68 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.index;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o sorteio por ordinal denso com o plano que o PostgreSQL executa para
+ * {@code ORDER BY RANDOM() LIMIT k}: um {@code random()} por linha da tabela e um
+ * top-N heapsort sobre o resultado. O modelo roda em memória, então mede só o custo
+ * de CPU do plano antigo; o I/O do seq scan fica de fora e só piora a comparação para ele.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AmostragemBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int tamanhoBanco;
+
+    @Param({"4", "50"})
+    public int quantidade;
+
+    private int[] ids;
+
+    @Setup
+    public void montarBanco() {
+        SplittableRandom random = new SplittableRandom(1);
+        ids = new int[tamanhoBanco];
+        for (int i = 0; i < tamanhoBanco; i++) {
+            ids[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public void orderByRandomLimit(Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Heap de máximo limitado a k: mantém as k menores chaves aleatórias, como o top-N do Postgres.
+        PriorityQueue<long[]> heap = new PriorityQueue<>(quantidade, (a, b) -> Long.compare(b[0], a[0]));
+        for (int id : ids) {
+            long chave = random.nextLong();
+            if (heap.size() < quantidade) {
+                heap.add(new long[]{chave, id});
+            } else if (chave < heap.peek()[0]) {
+                heap.poll();
+                heap.add(new long[]{chave, id});
+            }
+        }
+        blackhole.consume(heap);
+    }
+
+    @Benchmark
+    public void sorteioPorOrdinal(Blackhole blackhole) {
+        int[] posicoes = AmostragemAleatoria.sortearDistintos(ids.length, quantidade, ThreadLocalRandom.current());
+        int[] sorteados = new int[posicoes.length];
+        for (int i = 0; i < posicoes.length; i++) {
+            sorteados[i] = ids[posicoes[i]];
+        }
+        blackhole.consume(sorteados);
+    }
+}
@@ -0,0 +1,77 @@
+package com.backpack.bpweb.chore.simulado.services;
+
+import com.backpack.bpweb.chore.materias.entity.Materia;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.Alternativas;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.HashAfirmativa;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.entity.TopicosQuestoes;
+
+import java.util.*;
+
+/**
+ * Banco de questões gerado para os benchmarks: uma matéria com {@code totalTopicos} tópicos,
+ * cada um com uma alternativa correta e {@code incorretasPorTopico} incorretas.
+ */
+final class BancoSintetico {
+
+    static final int MATERIA_ID = 1;
+
+    final Map<Integer, TopicosQuestoes> topicos = new HashMap<>();
+    final Map<Integer, Alternativas> alternativas = new HashMap<>();
+    final Map<Integer, Alternativas> corretaPorTopico = new HashMap<>();
+
+    BancoSintetico(int totalTopicos, int incorretasPorTopico) {
+        Materia materia = new Materia();
+        materia.setId(MATERIA_ID);
+        materia.setNome("Matéria sintética");
+
+        int proximaAlternativa = 1;
+        for (int t = 1; t <= totalTopicos; t++) {
+            TopicosQuestoes topico = new TopicosQuestoes(t, "Tópico " + t, materia, "MÉDIO");
+            topicos.put(t, topico);
+
+            for (int a = 0; a <= incorretasPorTopico; a++) {
+                boolean correta = a == 0;
+                String texto = "Afirmativa " + a + " do tópico " + t;
+                Alternativas alternativa = new Alternativas(proximaAlternativa++, topico, texto, correta,
+                        "Justificativa da afirmativa " + a + " do tópico " + t, HashAfirmativa.calcular(texto));
+                alternativas.put(alternativa.getId(), alternativa);
+                if (correta) {
+                    corretaPorTopico.put(t, alternativa);
+                }
+            }
+        }
+    }
+
+    List<TopicosQuestoes> topicosPorIds(Iterable<?> ids) {
+        List<TopicosQuestoes> encontrados = new ArrayList<>();
+        for (Object id : ids) {
+            TopicosQuestoes topico = topicos.get((Integer) id);
+            if (topico != null) {
+                encontrados.add(topico);
+            }
+        }
+        return encontrados;
+    }
+
+    List<Alternativas> alternativasPorIds(Iterable<?> ids) {
+        List<Alternativas> encontradas = new ArrayList<>();
+        for (Object id : ids) {
+            Alternativas alternativa = alternativas.get((Integer) id);
+            if (alternativa != null) {
+                encontradas.add(alternativa);
+            }
+        }
+        return encontradas;
+    }
+
+    List<Alternativas> corretasDosTopicos(Collection<?> topicoIds) {
+        List<Alternativas> corretas = new ArrayList<>(topicoIds.size());
+        for (Object id : topicoIds) {
+            Alternativas correta = corretaPorTopico.get((Integer) id);
+            if (correta != null) {
+                corretas.add(correta);
+            }
+        }
+        return corretas;
+    }
+}
@@ -0,0 +1,46 @@
+package com.backpack.bpweb.chore.simulado.services;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Implementa interfaces de repositório com um proxy dinâmico que atende só os métodos
+ * registrados. Qualquer outra chamada falha, para que o benchmark não meça por engano
+ * um caminho que não foi simulado.
+ */
+final class RepositoriosEmMemoria<T> {
+
+    private final Class<T> tipo;
+    private final Map<String, Function<Object[], Object>> metodos = new HashMap<>();
+
+    private RepositoriosEmMemoria(Class<T> tipo) {
+        this.tipo = tipo;
+    }
+
+    static <T> RepositoriosEmMemoria<T> de(Class<T> tipo) {
+        return new RepositoriosEmMemoria<>(tipo);
+    }
+
+    RepositoriosEmMemoria<T> com(String metodo, Function<Object[], Object> implementacao) {
+        metodos.put(metodo, implementacao);
+        return this;
+    }
+
+    T criar() {
+        Object proxy = Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (self, method, args) -> {
+            Function<Object[], Object> implementacao = metodos.get(method.getName());
+            if (implementacao != null) {
+                return implementacao.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> tipo.getSimpleName() + " em memória";
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(tipo.getSimpleName() + "." + method.getName() + " não foi simulado");
+            };
+        });
+        return tipo.cast(proxy);
+    }
+}
@@ -0,0 +1,167 @@
+package com.backpack.bpweb.chore.simulado.services;
+
+import com.backpack.bpweb.chore.materias.repository.MateriaRepository;
+import com.backpack.bpweb.chore.simulado.DTOs.*;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository.AlternativasRepository;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.gabarito.GabaritoCache;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.index.BancoQuestoesIndex;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.repository.TopicosQuestoesRepository;
+import com.backpack.bpweb.chore.simulado.entitys.TentativasSimulados;
+import com.backpack.bpweb.chore.simulado.repositorys.RespostasUsuarioRepository;
+import com.backpack.bpweb.chore.simulado.repositorys.TentativasSimuladosRepository;
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.cache.CachesProperties;
+import com.backpack.bpweb.user.entity.Usuarios;
+import com.backpack.bpweb.user.estatistica.repository.AtividadeDiariaRepository;
+import com.backpack.bpweb.user.estatistica.service.AtividadeDiariaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.security.auth.message.AuthException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes do simulado contra um banco sintético em memória: montar a prova
+ * (sorteio de tópicos, embaralhamento e {@link QuestaoSimuladoDTO}) e corrigir
+ * (pontuação e {@link QuestaoCorrigidaDTO}). Os repositórios são falsos, então o número
+ * medido é só o custo de CPU e alocação do serviço, sem banco.
+ *
+ * <p>Rodar com {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="SimuladoServiceBenchmark"}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimuladoServiceBenchmark {
+
+    private static final int SUBMISSOES_PREPARADAS = 256;
+
+    @Param({"100", "10000", "100000"})
+    public int tamanhoBanco;
+
+    @Param({"6"})
+    public int incorretasPorTopico;
+
+    /** Com {@code false} o cache do gabarito tem tamanho zero e toda correção vai ao repositório. */
+    @Param({"true", "false"})
+    public boolean gabaritoEmCache;
+
+    private SimuladoService simuladoService;
+    private BancoQuestoesIndex bancoQuestoesIndex;
+    private SubmissaoSimuladoDTO[] submissoes;
+    private int proximaSubmissao;
+
+    @Setup
+    public void montar() throws AuthException {
+        BancoSintetico banco = new BancoSintetico(tamanhoBanco, incorretasPorTopico);
+
+        Usuarios usuario = new Usuarios();
+        usuario.setId(1);
+        usuario.setEmail("benchmark@bpweb.local");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+
+        TentativasSimulados tentativa = new TentativasSimulados();
+        tentativa.setId(1);
+        tentativa.setUsuario(usuario);
+
+        TopicosQuestoesRepository topicosRepository = RepositoriosEmMemoria.de(TopicosQuestoesRepository.class)
+                .com("findByMateria_Id", args -> new ArrayList<>(banco.topicos.values()))
+                .com("findAllById", args -> banco.topicosPorIds((Iterable<?>) args[0]))
+                .criar();
+        AlternativasRepository alternativasRepository = RepositoriosEmMemoria.de(AlternativasRepository.class)
+                .com("findAllByMateriaId", args -> new ArrayList<>(banco.alternativas.values()))
+                .com("findAllById", args -> banco.alternativasPorIds((Iterable<?>) args[0]))
+                .com("findByTopicosQuestoes_IdInAndCorretaIsTrue", args -> banco.corretasDosTopicos((Collection<?>) args[0]))
+                .criar();
+        TentativasSimuladosRepository tentativasRepository = RepositoriosEmMemoria.de(TentativasSimuladosRepository.class)
+                .com("save", args -> args[0])
+                .com("findByIdAndUsuarioId", args -> Optional.of(tentativa))
+                .criar();
+        RespostasUsuarioRepository respostasRepository = RepositoriosEmMemoria.de(RespostasUsuarioRepository.class)
+                .com("inserirEmLote", args -> null)
+                .criar();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GabaritoCache gabaritoCache = new GabaritoCache(alternativasRepository,
+                new CacheConfiguration().cacheManager(new CachesProperties(Map.of(CacheConfiguration.GABARITO,
+                        CachesProperties.Limites.porTamanho(gabaritoEmCache ? tamanhoBanco : 0, null)))));
+        MateriaRepository materiaRepository = RepositoriosEmMemoria.de(MateriaRepository.class)
+                .com("existsById", args -> true)
+                .criar();
+        bancoQuestoesIndex = new BancoQuestoesIndex(topicosRepository, alternativasRepository, materiaRepository, gabaritoCache,
+                new CachesProperties(Map.of(CacheConfiguration.BANCO_QUESTOES, CachesProperties.Limites.porTamanho(16, null))));
+        // Pool desligado: cada geração sorteia na hora, que é o custo que interessa medir.
+        SimuladoPool simuladoPool = new SimuladoPool(bancoQuestoesIndex, meterRegistry, false, 1, 1);
+        simuladoService = new SimuladoService(topicosRepository, alternativasRepository, tentativasRepository,
+                respostasRepository, simuladoPool, gabaritoCache, new DescritorSimulado("benchmark", 180), false,
+                new AtividadeDiariaService(RepositoriosEmMemoria.de(AtividadeDiariaRepository.class)
+                        .com("registrar", args -> null)
+                        .criar(), "America/Sao_Paulo"), new TransacoesSemBanco());
+
+        // Provas respondidas ao acaso, geradas antes da medição para a correção não pagar o sorteio.
+        Random random = new Random(42);
+        submissoes = new SubmissaoSimuladoDTO[SUBMISSOES_PREPARADAS];
+        for (int i = 0; i < submissoes.length; i++) {
+            Map<Integer, Integer> respostas = new HashMap<>();
+            for (QuestaoSimuladoDTO questao : simuladoService.gerarSimuladoPorMateria(BancoSintetico.MATERIA_ID).questoes()) {
+                List<AlternativaSimplesDTO> alternativas = questao.alternativas();
+                respostas.put(questao.topicoId(), alternativas.get(random.nextInt(alternativas.size())).id());
+            }
+            submissoes[i] = new SubmissaoSimuladoDTO(tentativa.getId(), respostas, null);
+        }
+    }
+
+    @TearDown
+    public void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public SimuladoResponseDTO gerarSimulado() throws AuthException {
+        return simuladoService.gerarSimuladoPorMateria(BancoSintetico.MATERIA_ID);
+    }
+
+    @Benchmark
+    public ResultadoSimuladoDTO corrigirSimulado() throws AuthException {
+        SubmissaoSimuladoDTO submissao = submissoes[proximaSubmissao];
+        proximaSubmissao = (proximaSubmissao + 1) % submissoes.length;
+        return simuladoService.corrigirSimulado(submissao);
+    }
+
+    /**
+     * Custo de recarregar o índice da matéria depois de uma alteração no banco de questões.
+     */
+    @Benchmark
+    public void recarregarIndice(Blackhole blackhole) {
+        bancoQuestoesIndex.invalidar(BancoSintetico.MATERIA_ID);
+        blackhole.consume(bancoQuestoesIndex.snapshotDaMateria(BancoSintetico.MATERIA_ID));
+    }
+
+    /** Os repositórios são em memória, então as transações do serviço não têm o que abrir. */
+    private static final class TransacoesSemBanco implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
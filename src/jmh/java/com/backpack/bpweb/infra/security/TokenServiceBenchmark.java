@@ -0,0 +1,61 @@
+package com.backpack.bpweb.infra.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.cache.CachesProperties;
+import com.backpack.bpweb.user.entity.Usuarios;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição de validar o token de sessão. {@code validarComoAntes} reproduz a
+ * implementação anterior, que montava algoritmo e verificador a cada chamada;
+ * {@code verificar} usa o {@link TokenService} atual, com o cache de tokens ligado ou não.
+ *
+ * <p>Rodar com {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="TokenServiceBenchmark"}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    private static final String SEGREDO = "benchmark";
+
+    /** Com {@code false} o cache de tokens tem tamanho zero e toda chamada verifica a assinatura. */
+    @Param({"true", "false"})
+    public boolean tokenEmCache;
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void montar() {
+        tokenService = new TokenService(SEGREDO, false, new CacheConfiguration().cacheManager(new CachesProperties(
+                Map.of(CacheConfiguration.TOKENS, CachesProperties.Limites.porTamanho(tokenEmCache ? 10000 : 0, Duration.ofSeconds(300))))));
+
+        Usuarios usuario = new Usuarios();
+        usuario.setEmail("benchmark@bpweb.local");
+        token = tokenService.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String validarComoAntes() {
+        return JWT.require(Algorithm.HMAC256(SEGREDO))
+                .withIssuer("auth-api")
+                .build()
+                .verify(token)
+                .getSubject();
+    }
+
+    @Benchmark
+    public Object verificar() {
+        return tokenService.verificar(token);
+    }
+}
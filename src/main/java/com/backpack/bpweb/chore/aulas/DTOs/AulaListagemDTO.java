@@ -0,0 +1,30 @@
+package com.backpack.bpweb.chore.aulas.DTOs;
+
+import com.backpack.bpweb.chore.aulas.repository.AulaRepository;
+import com.backpack.bpweb.chore.materias.DTOs.MateriaDTO;
+
+/**
+ * Aula nas listagens: só um trecho da descrição. A descrição completa vem de {@code GET /api/v1/aulas/{id}}.
+ */
+public record AulaListagemDTO(
+        Integer id,
+        String titulo,
+        String trecho,
+        boolean descricaoTruncada,
+        String link,
+        Integer duracaoSegundos,
+        MateriaDTO materia
+) {
+
+    public AulaListagemDTO(AulaRepository.AulaListagem aula) {
+        this(
+                aula.getId(),
+                aula.getTitulo(),
+                aula.getTrecho(),
+                aula.getTamanhoDescricao() != null && aula.getTrecho() != null && aula.getTamanhoDescricao() > aula.getTrecho().length(),
+                aula.getLink(),
+                aula.getDuracaoSegundos(),
+                aula.getMateriaNome() != null ? new MateriaDTO(aula.getMateriaNome()) : null
+        );
+    }
+}
@@ -1,8 +1,10 @@
 package com.backpack.bpweb.chore.aulas.controller;
 
 import com.backpack.bpweb.chore.aulas.DTOs.AulaDTO;
+import com.backpack.bpweb.chore.aulas.DTOs.AulaListagemDTO;
 import com.backpack.bpweb.chore.aulas.DTOs.AulaResponseDTO;
 import com.backpack.bpweb.chore.aulas.service.AulaService;
+import com.backpack.bpweb.chore.catalogo.RespostasCatalogo;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -10,20 +12,25 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("api/v1/aulas")
 public class AulaController {
 
     @Autowired
     private AulaService aulaService;
+    @Autowired
+    private RespostasCatalogo respostasCatalogo;
 
     // Role Admin
     @GetMapping("/all")
     public ResponseEntity<?> findAllAulasWithFilter(Integer materiaId, String searchTerm, Pageable pageable) {
         try {
-            Page<AulaResponseDTO> aulaPage = aulaService.findAulaWithFilters(materiaId, searchTerm, pageable);
+            // Só a navegação sem busca vai para o cache; termos de busca variam demais para valer a memória.
+            if (searchTerm == null || searchTerm.isBlank()) {
+                return respostasCatalogo.responder(RespostasCatalogo.consultaPaginada("aulas/all", materiaId, pageable),
+                        () -> aulaService.findAulaWithFilters(materiaId, null, pageable));
+            }
+            Page<AulaListagemDTO> aulaPage = aulaService.findAulaWithFilters(materiaId, searchTerm, pageable);
             return ResponseEntity.ok(aulaPage);
         } catch (NullPointerException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -34,8 +41,7 @@ public class AulaController {
     @GetMapping ("/by-materia/{materiaId}")
     public ResponseEntity<?> findAulasByMateriaId(@PathVariable(value = "materiaId") Integer materiaId) {
         try {
-            List<AulaResponseDTO> aulas = aulaService.findAllAulasByMateriaId(materiaId);
-            return ResponseEntity.ok(aulas);
+            return respostasCatalogo.responder("aulas/by-materia/" + materiaId, () -> aulaService.findAllAulasByMateriaId(materiaId));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -1,6 +1,7 @@
 package com.backpack.bpweb.chore.aulas.repository;
 
 import com.backpack.bpweb.chore.aulas.entity.Aula;
+import com.backpack.bpweb.chore.busca.index.TituloCatalogo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,20 +13,79 @@ import java.util.Optional;
 
 public interface AulaRepository extends JpaRepository<Aula, Integer> {
 
+    // Colunas da listagem: a descrição vem cortada em 200 caracteres, com o tamanho original ao lado.
+    String COLUNAS_LISTAGEM = "a.id AS id, a.titulo AS titulo, LEFT(a.descricao, 200) AS trecho, " +
+            "LENGTH(a.descricao) AS \"tamanhoDescricao\", a.url_video AS link, " +
+            "a.duracao_segundos AS \"duracaoSegundos\", m.nome AS \"materiaNome\" ";
+
     @Query(
             nativeQuery = true,
-            value = "SELECT a.* FROM aulas a " +
+            value = "SELECT " + COLUNAS_LISTAGEM + "FROM aulas a " +
                     "LEFT JOIN materias m ON m.id = a.materia_id " +
                     "WHERE (:materiaId IS NULL OR m.id = :materiaId) " +
+                    "AND (:searchTerm IS NULL OR LOWER(CAST(a.titulo AS TEXT)) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(CAST(a.descricao AS TEXT)) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
+            countQuery = "SELECT COUNT(*) FROM aulas a " +
+                    "WHERE (:materiaId IS NULL OR a.materia_id = :materiaId) " +
                     "AND (:searchTerm IS NULL OR LOWER(CAST(a.titulo AS TEXT)) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(CAST(a.descricao AS TEXT)) LIKE LOWER(CONCAT('%', :searchTerm, '%')))"
     )
-    Page<Aula> findWithFilters(
+    Page<AulaListagem> findWithFilters(
             @Param("materiaId") Integer materiaId,
             @Param("searchTerm") String searchTerm,
             Pageable pageable
     );
 
+    /**
+     * Busca em texto completo sobre a coluna {@code busca} (V12), ordenada por relevância.
+     * O Pageable não deve trazer ordenação: a ordem é a do ranking. {@code consulta} vem de
+     * {@link com.backpack.bpweb.chore.busca.ConsultaTextoCompleto#prefixada}.
+     */
+    @Query(
+            nativeQuery = true,
+            value = "SELECT " + COLUNAS_LISTAGEM + "FROM aulas a " +
+                    "CROSS JOIN to_tsquery('portuguese_unaccent', :consulta) q " +
+                    "LEFT JOIN materias m ON m.id = a.materia_id " +
+                    "WHERE (:materiaId IS NULL OR a.materia_id = :materiaId) AND a.busca @@ q " +
+                    "ORDER BY ts_rank_cd(a.busca, q) DESC, a.id",
+            countQuery = "SELECT COUNT(*) FROM aulas a " +
+                    "WHERE (:materiaId IS NULL OR a.materia_id = :materiaId) " +
+                    "AND a.busca @@ to_tsquery('portuguese_unaccent', :consulta)"
+    )
+    Page<AulaListagem> buscarPorTexto(
+            @Param("materiaId") Integer materiaId,
+            @Param("consulta") String consulta,
+            Pageable pageable
+    );
+
     Optional<Aula> findByTitulo(String titulo);
 
-    List<Aula> findAllByMateriaId(Integer materiaId);
+    @Query("SELECT a.id AS id, a.titulo AS titulo FROM Aula a")
+    List<TituloCatalogo> findTitulos();
+
+    @Query("SELECT a.id AS id, a.titulo AS titulo, SUBSTRING(a.descricao, 1, 200) AS trecho, LENGTH(a.descricao) AS tamanhoDescricao, " +
+            "a.link AS link, a.duracaoSegundos AS duracaoSegundos, m.nome AS materiaNome " +
+            "FROM Aula a LEFT JOIN a.materia m WHERE m.id = :materiaId ORDER BY a.id")
+    List<AulaListagem> findListagemByMateriaId(@Param("materiaId") Integer materiaId);
+
+    // Pares aula/matéria do catálogo inteiro, em ordem de matéria, para o índice de conclusão.
+    @Query("SELECT a.id AS aulaId, m.id AS materiaId, m.nome AS materiaNome FROM Aula a JOIN a.materia m ORDER BY m.id, a.id")
+    List<AulaMateria> findAulasComMateria();
+
+    interface AulaMateria {
+        Integer getAulaId();
+        Integer getMateriaId();
+        String getMateriaNome();
+    }
+
+    /**
+     * Aula para listagens, sem a descrição completa: só os primeiros 200 caracteres.
+     */
+    interface AulaListagem {
+        Integer getId();
+        String getTitulo();
+        String getTrecho();
+        Integer getTamanhoDescricao();
+        String getLink();
+        Integer getDuracaoSegundos();
+        String getMateriaNome();
+    }
 }
@@ -1,17 +1,29 @@
 package com.backpack.bpweb.chore.aulas.service;
 
 import com.backpack.bpweb.chore.aulas.DTOs.AulaDTO;
+import com.backpack.bpweb.chore.aulas.DTOs.AulaListagemDTO;
 import com.backpack.bpweb.chore.aulas.DTOs.AulaResponseDTO;
 import com.backpack.bpweb.chore.aulas.entity.Aula;
 import com.backpack.bpweb.chore.aulas.repository.AulaRepository;
+import com.backpack.bpweb.chore.busca.ConsultaTextoCompleto;
+import com.backpack.bpweb.chore.busca.index.SugestoesIndex;
+import com.backpack.bpweb.chore.busca.index.TipoSugestao;
+import com.backpack.bpweb.chore.catalogo.CatalogoVersao;
 import com.backpack.bpweb.chore.materias.entity.Materia;
+import com.backpack.bpweb.chore.materias.index.ConclusaoMateriasIndex;
 import com.backpack.bpweb.chore.materias.repository.MateriaRepository;
+import com.backpack.bpweb.user.estatistica.repository.EstatisticasUsuarioRepository;
+import com.backpack.bpweb.user.estatistica.service.TotaisCatalogo;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,26 +34,46 @@ public class AulaService {
     private AulaRepository repository;
     @Autowired
     private MateriaRepository materiaRepository;
+    @Autowired
+    private EstatisticasUsuarioRepository estatisticasUsuarioRepository;
+    @Autowired
+    private TotaisCatalogo totaisCatalogo;
+    @Autowired
+    private ConclusaoMateriasIndex conclusaoMateriasIndex;
+    @Autowired
+    private SugestoesIndex sugestoesIndex;
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+    // Com a busca em texto completo o resultado vem por relevância e a ordenação pedida só vale no LIKE.
+    @Value("${busca.texto-completo.habilitado:true}")
+    private boolean buscaTextoCompleto;
 
     // publico
-    public Page<AulaResponseDTO> findAulaWithFilters(Integer materiaId, String searchTerm, Pageable pageable) {
-        Page<Aula> aulaPage = repository.findWithFilters(materiaId, searchTerm, pageable);
+    public Page<AulaListagemDTO> findAulaWithFilters(Integer materiaId, String searchTerm, Pageable pageable) {
+        String consulta = buscaTextoCompleto ? ConsultaTextoCompleto.prefixada(searchTerm) : null;
+        Page<AulaRepository.AulaListagem> aulaPage = consulta != null
+                ? repository.buscarPorTexto(materiaId, consulta, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                : null;
+        // Termo só de palavras comuns ("de", "com") ou pedaço que não é prefixo de nenhum radical: vai pelo LIKE.
+        if (aulaPage == null || aulaPage.getTotalElements() == 0) {
+            aulaPage = repository.findWithFilters(materiaId, searchTerm, pageable);
+        }
 
         if (aulaPage.isEmpty()) {
             throw new NullPointerException("Nenhuma aula encontrada com os filtros definidos.");
         }
-        return aulaPage.map(AulaResponseDTO::new);
+        return aulaPage.map(AulaListagemDTO::new);
     }
 
     // publico
-    public List<AulaResponseDTO> findAllAulasByMateriaId(Integer materiaId) {
-        List<Aula> aulas = repository.findAllByMateriaId(materiaId);
+    public List<AulaListagemDTO> findAllAulasByMateriaId(Integer materiaId) {
+        List<AulaRepository.AulaListagem> aulas = repository.findListagemByMateriaId(materiaId);
         if (aulas.isEmpty()) {
             throw new EntityNotFoundException("Nenhuma aula encontrada com o id da materia informado.");
         }
         return aulas
                 .stream()
-                .map(AulaResponseDTO::new)
+                .map(AulaListagemDTO::new)
                 .collect(Collectors.toList());
     }
 
@@ -53,6 +85,7 @@ public class AulaService {
     }
 
     // Somente para admins
+    @Transactional
     public AulaResponseDTO createNewAula(AulaDTO data) {
         if (repository.findByTitulo(data.titulo()).isPresent()) {
             throw new IllegalArgumentException("Já existe uma aula com esse titulo: " + data.titulo());
@@ -61,26 +94,46 @@ public class AulaService {
         Aula aula = new Aula();
         mapDtoToEntity(data, aula);
         repository.save(aula);
+        totaisCatalogo.invalidarAulas();
+        conclusaoMateriasIndex.invalidarCatalogo();
+        sugestoesIndex.atualizar(TipoSugestao.AULA, aula.getId(), aula.getTitulo());
+        catalogoVersao.incrementar();
         return new AulaResponseDTO(aula);
     }
 
     // Somente para admins
+    @Transactional
     public AulaResponseDTO updateAula(Integer id, AulaDTO data) {
         Aula aula = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Aula não encontrada com o id: " + id));
 
         mapDtoToEntity(data, aula);
         repository.save(aula);
+        // A aula pode ter mudado de matéria.
+        conclusaoMateriasIndex.invalidarCatalogo();
+        sugestoesIndex.atualizar(TipoSugestao.AULA, aula.getId(), aula.getTitulo());
+        catalogoVersao.incrementar();
         return new AulaResponseDTO(aula);
     }
 
     // Somente para admins
+    @Transactional
     public void deleteAula(Integer id) {
         if (!repository.existsById(id)) {
             throw new EntityNotFoundException("Aula não encontrada com o id: " + id);
         }
 
+        // O progresso da aula sai em cascata no banco; as estatísticas de quem tinha progresso são recalculadas.
+        List<Integer> usuariosAfetados = estatisticasUsuarioRepository.findUsuariosComProgressoNaAula(id);
         repository.deleteById(id);
+        repository.flush();
+        if (!usuariosAfetados.isEmpty()) {
+            estatisticasUsuarioRepository.recalcular(usuariosAfetados, ZoneId.systemDefault().getId());
+        }
+        totaisCatalogo.invalidarAulas();
+        conclusaoMateriasIndex.invalidarCatalogo();
+        sugestoesIndex.remover(TipoSugestao.AULA, id);
+        catalogoVersao.incrementar();
     }
 
 
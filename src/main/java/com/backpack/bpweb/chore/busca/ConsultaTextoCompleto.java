@@ -0,0 +1,36 @@
+package com.backpack.bpweb.chore.busca;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Monta a consulta de {@code to_tsquery} usada na busca em texto completo: todas as palavras do termo
+ * são obrigatórias e a última vale como prefixo, para que "revolução fran" já encontre
+ * "Revolução Francesa" enquanto o usuário digita. Só letras e dígitos passam, então nenhum caractere
+ * do termo vira operador da consulta.
+ */
+public final class ConsultaTextoCompleto {
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ConsultaTextoCompleto() {
+    }
+
+    /**
+     * @return a consulta, ou {@code null} se o termo não tiver nenhuma palavra
+     */
+    public static String prefixada(String termo) {
+        if (termo == null) {
+            return null;
+        }
+        String[] palavras = Arrays.stream(SEPARADORES.split(termo.strip()))
+                .filter(palavra -> !palavra.isEmpty())
+                .toArray(String[]::new);
+        if (palavras.length == 0) {
+            return null;
+        }
+        palavras[palavras.length - 1] += ":*";
+        return Arrays.stream(palavras).collect(Collectors.joining(" & "));
+    }
+}
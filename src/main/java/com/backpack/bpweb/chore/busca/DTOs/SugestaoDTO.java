@@ -0,0 +1,10 @@
+package com.backpack.bpweb.chore.busca.DTOs;
+
+import com.backpack.bpweb.chore.busca.index.TipoSugestao;
+
+public record SugestaoDTO(
+        TipoSugestao tipo,
+        int id,
+        String titulo
+) {
+}
@@ -0,0 +1,34 @@
+package com.backpack.bpweb.chore.busca.controller;
+
+import com.backpack.bpweb.chore.busca.DTOs.SugestaoDTO;
+import com.backpack.bpweb.chore.busca.index.SugestoesIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/busca")
+public class BuscaController {
+
+    private static final int LIMITE_MAXIMO = 20;
+
+    private final SugestoesIndex sugestoesIndex;
+
+    public BuscaController(SugestoesIndex sugestoesIndex) {
+        this.sugestoesIndex = sugestoesIndex;
+    }
+
+    @GetMapping("/sugestoes")
+    public ResponseEntity<?> sugerir(@RequestParam("q") String termo, @RequestParam(defaultValue = "8") int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest().body(Map.of("message", "O limite deve ficar entre 1 e " + LIMITE_MAXIMO + "."));
+        }
+        List<SugestaoDTO> sugestoes = sugestoesIndex.sugerir(termo, limite);
+        return ResponseEntity.ok(sugestoes);
+    }
+}
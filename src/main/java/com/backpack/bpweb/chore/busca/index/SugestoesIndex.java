@@ -0,0 +1,176 @@
+package com.backpack.bpweb.chore.busca.index;
+
+import com.backpack.bpweb.chore.aulas.repository.AulaRepository;
+import com.backpack.bpweb.chore.busca.DTOs.SugestaoDTO;
+import com.backpack.bpweb.chore.materias.repository.MateriaRepository;
+import com.backpack.bpweb.chore.resumos.repository.ResumoRepository;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.repository.TopicosQuestoesRepository;
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Autocompletar de títulos do catálogo (aulas, resumos, matérias e tópicos) sem ir ao banco.
+ * Cada título entra normalizado (minúsculo, sem acento) uma vez por palavra, a partir dela, num array
+ * ordenado: "revol" encontra "A Revolução Francesa" por "revolucao francesa". A consulta é uma busca
+ * binária pelo prefixo seguida de uma varredura curta.
+ *
+ * <p>O array nunca é alterado depois de publicado. As escritas dos administradores trocam só as
+ * entradas do item alterado, depois do commit, e publicam um array novo.</p>
+ */
+@Component
+public class SugestoesIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SugestoesIndex.class);
+
+    /** Entradas examinadas por consulta, no máximo; limita o custo de prefixos de uma letra. */
+    private static final int MAXIMO_VARRIDAS = 1000;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final AulaRepository aulaRepository;
+    private final ResumoRepository resumoRepository;
+    private final MateriaRepository materiaRepository;
+    private final TopicosQuestoesRepository topicosQuestoesRepository;
+
+    private volatile Entrada[] entradas = new Entrada[0];
+
+    public SugestoesIndex(AulaRepository aulaRepository, ResumoRepository resumoRepository,
+                          MateriaRepository materiaRepository, TopicosQuestoesRepository topicosQuestoesRepository) {
+        this.aulaRepository = aulaRepository;
+        this.resumoRepository = resumoRepository;
+        this.materiaRepository = materiaRepository;
+        this.topicosQuestoesRepository = topicosQuestoesRepository;
+    }
+
+    /**
+     * Carrega o catálogo inteiro. Segura o lock durante a leitura: uma escrita que termine no meio
+     * espera e é aplicada por cima do que foi carregado, em vez de ser apagada por ele.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregar() {
+        long inicio = System.currentTimeMillis();
+        List<Entrada> todas = new ArrayList<>();
+        adicionar(todas, TipoSugestao.AULA, aulaRepository.findTitulos());
+        adicionar(todas, TipoSugestao.RESUMO, resumoRepository.findTitulos());
+        adicionar(todas, TipoSugestao.MATERIA, materiaRepository.findTitulos());
+        adicionar(todas, TipoSugestao.TOPICO, topicosQuestoesRepository.findTitulos());
+        publicar(todas);
+        log.info("Índice de sugestões carregado com {} entradas em {} ms", todas.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Até {@code limite} títulos com alguma palavra começando por {@code termo}. Títulos que começam
+     * pelo termo vêm primeiro, depois os mais curtos.
+     */
+    public List<SugestaoDTO> sugerir(String termo, int limite) {
+        String prefixo = normalizar(termo);
+        if (prefixo.isEmpty()) {
+            return List.of();
+        }
+        Entrada[] atual = entradas;
+
+        // Melhor entrada de cada item: a que casa no começo do título ganha da que casa no meio.
+        Map<SugestaoDTO, Boolean> encontradas = new HashMap<>();
+        for (int i = primeiraMaiorOuIgual(atual, prefixo), varridas = 0;
+             i < atual.length && varridas < MAXIMO_VARRIDAS && atual[i].chave().startsWith(prefixo);
+             i++, varridas++) {
+            encontradas.merge(atual[i].sugestao(), atual[i].inicio(), Boolean::logicalOr);
+        }
+
+        return encontradas.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<SugestaoDTO, Boolean>, Boolean>comparing(Map.Entry::getValue).reversed()
+                        .thenComparingInt(e -> e.getKey().titulo().length())
+                        .thenComparing(e -> e.getKey().titulo()))
+                .limit(limite)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Inclui ou troca o título do item depois do commit da transação atual.
+     */
+    public void atualizar(TipoSugestao tipo, int id, String titulo) {
+        List<Entrada> novas = new ArrayList<>();
+        adicionar(novas, new SugestaoDTO(tipo, id, titulo));
+        TransactionHooks.afterCommit(() -> substituir(tipo, id, novas));
+    }
+
+    /**
+     * Tira o item do índice depois do commit da transação atual.
+     */
+    public void remover(TipoSugestao tipo, int id) {
+        TransactionHooks.afterCommit(() -> substituir(tipo, id, List.of()));
+    }
+
+    private synchronized void substituir(TipoSugestao tipo, int id, List<Entrada> novas) {
+        Entrada[] atual = entradas;
+        List<Entrada> resultado = new ArrayList<>(atual.length + novas.size());
+        for (Entrada entrada : atual) {
+            if (entrada.sugestao().tipo() != tipo || entrada.sugestao().id() != id) {
+                resultado.add(entrada);
+            }
+        }
+        resultado.addAll(novas);
+        publicar(resultado);
+    }
+
+    private void publicar(List<Entrada> lista) {
+        Entrada[] novo = lista.toArray(new Entrada[0]);
+        Arrays.sort(novo, Comparator.comparing(Entrada::chave));
+        entradas = novo;
+    }
+
+    private static void adicionar(List<Entrada> destino, TipoSugestao tipo, List<TituloCatalogo> titulos) {
+        for (TituloCatalogo titulo : titulos) {
+            if (titulo.getTitulo() != null) {
+                adicionar(destino, new SugestaoDTO(tipo, titulo.getId(), titulo.getTitulo()));
+            }
+        }
+    }
+
+    // Uma entrada por palavra do título, do começo da palavra até o fim do título.
+    private static void adicionar(List<Entrada> destino, SugestaoDTO sugestao) {
+        String normalizado = normalizar(sugestao.titulo());
+        for (int i = 0; i < normalizado.length(); i++) {
+            if (i == 0 || normalizado.charAt(i - 1) == ' ') {
+                destino.add(new Entrada(normalizado.substring(i), sugestao, i == 0));
+            }
+        }
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    private static int primeiraMaiorOuIgual(Entrada[] entradas, String prefixo) {
+        int baixo = 0;
+        int alto = entradas.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (entradas[meio].chave().compareTo(prefixo) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private record Entrada(String chave, SugestaoDTO sugestao, boolean inicio) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.backpack.bpweb.chore.busca.index;
+
+public enum TipoSugestao {
+    AULA,
+    RESUMO,
+    MATERIA,
+    TOPICO
+}
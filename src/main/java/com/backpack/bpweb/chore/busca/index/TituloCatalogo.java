@@ -0,0 +1,9 @@
+package com.backpack.bpweb.chore.busca.index;
+
+/**
+ * Projeção de id e título usada para carregar o {@link SugestoesIndex} sem trazer as entidades.
+ */
+public interface TituloCatalogo {
+    Integer getId();
+    String getTitulo();
+}
@@ -0,0 +1,67 @@
+package com.backpack.bpweb.chore.catalogo;
+
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versão do catálogo (matérias, aulas, resumos, tópicos e alternativas), usada como ETag das leituras
+ * do catálogo. A versão fica na tabela {@code catalogo_versao} e toda escrita de administrador
+ * a incrementa na própria transação, então todas as instâncias compartilham a mesma versão e
+ * ela nunca chega ao banco antes dos dados que a mudaram.
+ *
+ * <p>Cada instância guarda a última versão lida por {@code catalogo.versao.validade-ms}: uma escrita
+ * feita em outra instância aparece aqui depois desse prazo, no máximo. A instância que escreveu
+ * passa a usar a versão nova logo depois do commit. A versão guardada nunca recua: uma releitura
+ * lenta que termina depois do commit de um incremento não sobrescreve a versão mais nova.</p>
+ */
+@Component
+public class CatalogoVersao {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long validadeNanos;
+    private final AtomicReference<Lida> lida = new AtomicReference<>();
+
+    public CatalogoVersao(JdbcTemplate jdbcTemplate, @Value("${catalogo.versao.validade-ms:2000}") long validadeMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validadeNanos = Duration.ofMillis(validadeMs).toNanos();
+    }
+
+    public long atual() {
+        Lida atual = lida.get();
+        if (atual == null || System.nanoTime() - atual.lidaEm() >= validadeNanos) {
+            // Duas threads podem reler ao mesmo tempo; as duas leem do banco e fica a versão maior.
+            atual = guardar(jdbcTemplate.queryForObject("SELECT versao FROM catalogo_versao WHERE id = 1", Long.class));
+        }
+        return atual.versao();
+    }
+
+    public String etag() {
+        return "\"c" + atual() + "\"";
+    }
+
+    /**
+     * Incrementa a versão na transação atual. A linha fica travada até o commit, o que enfileira
+     * as escritas de administrador entre si; a leitura do catálogo não é afetada.
+     */
+    public void incrementar() {
+        Long nova = jdbcTemplate.queryForObject("UPDATE catalogo_versao SET versao = versao + 1 WHERE id = 1 RETURNING versao", Long.class);
+        TransactionHooks.afterCommit(() -> guardar(nova));
+    }
+
+    /**
+     * Guarda a versão lida renovando o prazo, mas só troca a versão guardada por uma maior ou igual.
+     */
+    private Lida guardar(long versao) {
+        Lida nova = new Lida(versao, System.nanoTime());
+        return lida.accumulateAndGet(nova, (anterior, candidata) ->
+                anterior == null || candidata.versao() >= anterior.versao() ? candidata : anterior);
+    }
+
+    private record Lida(long versao, long lidaEm) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.backpack.bpweb.chore.catalogo;
+
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Respostas das listagens do catálogo já serializadas em JSON (UTF-8), guardadas no cache
+ * {@link CacheConfiguration#RESPOSTAS_CATALOGO}. A chave leva a versão do catálogo guardada no banco
+ * ({@link CatalogoVersao}), a mesma em todas as instâncias: uma escrita de administrador em qualquer
+ * uma delas troca todas as chaves de uma vez e nada precisa ser invalidado.
+ *
+ * <p>O corpo volta como {@code byte[]}, que o conversor de bytes copia direto para a resposta,
+ * sem passar pelo Jackson. O mesmo {@link ObjectMapper} do Spring MVC faz a serialização,
+ * então o JSON é idêntico ao de antes. Exceções do carregamento não entram no cache.</p>
+ */
+@Component
+public class RespostasCatalogo {
+
+    private final CatalogoVersao catalogoVersao;
+    private final ObjectMapper objectMapper;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+
+    public RespostasCatalogo(CatalogoVersao catalogoVersao, ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.catalogoVersao = catalogoVersao;
+        this.objectMapper = objectMapper;
+        // Acesso direto ao Caffeine para carregar e guardar numa operação só; as estatísticas continuam as do cache registrado.
+        this.cache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.RESPOSTAS_CATALOGO))).getNativeCache();
+    }
+
+    /**
+     * Resposta 200 com o JSON de {@code carregar}, serializado só na primeira vez para esta versão do catálogo.
+     *
+     * @param consulta a consulta normalizada, por exemplo {@code "aulas/by-materia/3"}
+     */
+    public ResponseEntity<byte[]> responder(String consulta, Supplier<?> carregar) {
+        // A versão é lida antes de carregar: se mudar no meio, a entrada fica na versão antiga e não é mais lida.
+        // Como a versão sobe na transação da escrita, uma versão nova nunca é lida antes dos dados novos.
+        String chave = catalogoVersao.atual() + "|" + consulta;
+        byte[] corpo = (byte[]) cache.get(chave, ignorada -> serializar(carregar.get()));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corpo);
+    }
+
+    /**
+     * Consulta normalizada de uma listagem filtrada por matéria e paginada.
+     */
+    public static String consultaPaginada(String recurso, Integer materiaId, Pageable pageable) {
+        return recurso + "?materiaId=" + materiaId
+                + "&page=" + pageable.getPageNumber()
+                + "&size=" + pageable.getPageSize()
+                + "&sort=" + pageable.getSort();
+    }
+
+    private byte[] serializar(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.backpack.bpweb.chore.materias.index;
+
+import com.backpack.bpweb.chore.aulas.repository.AulaRepository;
+import com.backpack.bpweb.chore.materias.DTOs.MateriaComConclusaoDTO;
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import com.backpack.bpweb.progresso.progressoAula.repository.ProgressoAulaRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Percentual de conclusão por matéria calculado em memória com bitmaps comprimidos (Roaring):
+ * um bitmap com as aulas de cada matéria e, por usuário, um bitmap com as aulas concluídas.
+ * O percentual é a cardinalidade da interseção dividida pelo total da matéria, sem consulta ao banco.
+ *
+ * <p>O catálogo (aulas por matéria) é carregado na primeira leitura e descartado quando aulas ou
+ * matérias mudam. Os bitmaps dos usuários ficam no cache {@link CacheConfiguration#AULAS_CONCLUIDAS},
+ * carregados na primeira leitura de cada usuário e limitados por um orçamento de memória.
+ * Bitmaps nunca são alterados depois de publicados: cada mudança publica uma cópia.</p>
+ *
+ * <p>As invalidações só alcançam esta instância; o catálogo e os bitmaps também expiram por
+ * tempo, para que mudanças feitas em outra instância apareçam aqui com atraso limitado.</p>
+ */
+@Component
+public class ConclusaoMateriasIndex {
+
+    private final AulaRepository aulaRepository;
+    private final ProgressoAulaRepository progressoAulaRepository;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> concluidasPorUsuario;
+    private final AtomicReference<Catalogo> catalogo = new AtomicReference<>();
+    private final AtomicLong geracaoCatalogo = new AtomicLong();
+    private final long validadeCatalogoNanos;
+
+    public ConclusaoMateriasIndex(AulaRepository aulaRepository, ProgressoAulaRepository progressoAulaRepository, CacheManager cacheManager,
+                                  @Value("${materias.progresso.catalogo-validade-segundos:600}") long validadeCatalogoSegundos) {
+        this.aulaRepository = aulaRepository;
+        this.progressoAulaRepository = progressoAulaRepository;
+        this.validadeCatalogoNanos = Duration.ofSeconds(validadeCatalogoSegundos).toNanos();
+        this.concluidasPorUsuario = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.AULAS_CONCLUIDAS))).getNativeCache();
+    }
+
+    /**
+     * Matérias com pelo menos uma aula, em ordem de id, com o percentual de aulas concluídas pelo usuário.
+     */
+    public List<MateriaComConclusaoDTO> percentuais(int usuarioId) {
+        Catalogo atual = catalogo();
+        RoaringBitmap concluidas = concluidas(usuarioId).bitmap();
+
+        List<MateriaComConclusaoDTO> resultado = new ArrayList<>(atual.materias().size());
+        for (MateriaAulas materia : atual.materias()) {
+            long total = materia.aulas().getLongCardinality();
+            long feitas = RoaringBitmap.andCardinality(materia.aulas(), concluidas);
+            resultado.add(new MateriaComConclusaoDTO(materia.id(), materia.nome(), total > 0 ? ((double) feitas / total) * 100.0 : 0.0));
+        }
+        return resultado;
+    }
+
+    /**
+     * Atualiza o bitmap do usuário depois do commit, se ele estiver carregado; se não estiver,
+     * a próxima leitura já traz o estado novo do banco. {@code conclusoes} vai de aula para concluída ou não.
+     */
+    public void registrarConclusoes(int usuarioId, Map<Integer, Boolean> conclusoes) {
+        if (conclusoes.isEmpty()) {
+            return;
+        }
+        Map<Integer, Boolean> copia = Map.copyOf(conclusoes);
+        TransactionHooks.afterCommit(() -> concluidasPorUsuario.asMap().computeIfPresent(usuarioId,
+                (chave, valor) -> ((AulasConcluidas) valor).com(copia)));
+    }
+
+    /**
+     * Descarta o catálogo depois do commit; o próximo cálculo recarrega aulas e matérias.
+     */
+    public void invalidarCatalogo() {
+        TransactionHooks.afterCommit(() -> {
+            geracaoCatalogo.incrementAndGet();
+            catalogo.set(null);
+        });
+    }
+
+    private AulasConcluidas concluidas(int usuarioId) {
+        return (AulasConcluidas) concluidasPorUsuario.get(usuarioId,
+                chave -> AulasConcluidas.de(progressoAulaRepository.findAulasConcluidasIds((Integer) chave)));
+    }
+
+    private Catalogo catalogo() {
+        // A geração é lida antes da carga: um catálogo carregado enquanto outra thread invalidava
+        // fica com a geração antiga e não é usado por mais ninguém, mesmo que chegue a ser publicado.
+        long geracao = geracaoCatalogo.get();
+        Catalogo atual = catalogo.get();
+        if (atual != null && atual.geracao() == geracao && System.nanoTime() - atual.carregadoEm() < validadeCatalogoNanos) {
+            return atual;
+        }
+        Catalogo carregado = carregarCatalogo(geracao);
+        if (geracaoCatalogo.get() == geracao) {
+            catalogo.set(carregado);
+        }
+        return carregado;
+    }
+
+    private Catalogo carregarCatalogo(long geracao) {
+        Map<Integer, String> nomes = new TreeMap<>();
+        Map<Integer, RoaringBitmap> aulasPorMateria = new HashMap<>();
+        for (AulaRepository.AulaMateria aula : aulaRepository.findAulasComMateria()) {
+            nomes.put(aula.getMateriaId(), aula.getMateriaNome());
+            aulasPorMateria.computeIfAbsent(aula.getMateriaId(), id -> new RoaringBitmap()).add(aula.getAulaId());
+        }
+
+        List<MateriaAulas> materias = new ArrayList<>(nomes.size());
+        nomes.forEach((id, nome) -> {
+            RoaringBitmap aulas = aulasPorMateria.get(id);
+            aulas.runOptimize();
+            materias.add(new MateriaAulas(id, nome, aulas));
+        });
+        return new Catalogo(List.copyOf(materias), geracao, System.nanoTime());
+    }
+
+    private record Catalogo(List<MateriaAulas> materias, long geracao, long carregadoEm) {
+    }
+
+    private record MateriaAulas(int id, String nome, RoaringBitmap aulas) {
+    }
+
+    private record AulasConcluidas(RoaringBitmap bitmap) implements CacheConfiguration.ComPeso {
+
+        static AulasConcluidas de(List<Integer> aulaIds) {
+            RoaringBitmap bitmap = new RoaringBitmap();
+            aulaIds.forEach(bitmap::add);
+            bitmap.runOptimize();
+            return new AulasConcluidas(bitmap);
+        }
+
+        AulasConcluidas com(Map<Integer, Boolean> conclusoes) {
+            RoaringBitmap copia = bitmap.clone();
+            conclusoes.forEach((aulaId, concluida) -> {
+                if (concluida) {
+                    copia.add(aulaId);
+                } else {
+                    copia.remove(aulaId);
+                }
+            });
+            copia.runOptimize();
+            return new AulasConcluidas(copia);
+        }
+
+        @Override
+        public int pesoEmBytes() {
+            // Cabeçalho do objeto e da entrada no cache somados ao conteúdo do bitmap.
+            return 64 + bitmap.getSizeInBytes();
+        }
+    }
+}
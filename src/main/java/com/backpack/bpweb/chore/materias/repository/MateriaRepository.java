@@ -1,8 +1,7 @@
 package com.backpack.bpweb.chore.materias.repository;
 
-import com.backpack.bpweb.chore.materias.DTOs.MateriaProgressoRawDTO;
+import com.backpack.bpweb.chore.busca.index.TituloCatalogo;
 import com.backpack.bpweb.chore.materias.entity.Materia;
-import com.backpack.bpweb.user.entity.Usuarios;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -29,17 +28,6 @@ public interface MateriaRepository extends JpaRepository<Materia, Integer> {
 
     Optional<Materia> findByNome(String nome);
 
-    @Query("""
-        SELECT new com.backpack.bpweb.chore.materias.DTOs.MateriaProgressoRawDTO(
-            m.id,
-            m.nome,
-            COUNT(a.id),
-            COUNT(pa.id)
-        )
-        FROM Aula a
-        JOIN a.materia m
-        LEFT JOIN ProgressoAula pa ON pa.aula = a AND pa.usuario = :usuario AND pa.status.nome = 'CONCLUIDO'
-        GROUP BY m.id, m.nome
-    """)
-    List<MateriaProgressoRawDTO> findMateriasWithProgress(@Param("usuario") Usuarios usuario);
+    @Query("SELECT m.id AS id, m.nome AS titulo FROM Materia m")
+    List<TituloCatalogo> findTitulos();
 }
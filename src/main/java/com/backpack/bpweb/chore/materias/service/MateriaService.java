@@ -1,10 +1,13 @@
 package com.backpack.bpweb.chore.materias.service;
 
+import com.backpack.bpweb.chore.busca.index.SugestoesIndex;
+import com.backpack.bpweb.chore.busca.index.TipoSugestao;
+import com.backpack.bpweb.chore.catalogo.CatalogoVersao;
 import com.backpack.bpweb.chore.materias.DTOs.MateriaComConclusaoDTO;
 import com.backpack.bpweb.chore.materias.DTOs.MateriaDTO;
-import com.backpack.bpweb.chore.materias.DTOs.MateriaProgressoRawDTO;
 import com.backpack.bpweb.chore.materias.DTOs.MateriaResponseDTO;
 import com.backpack.bpweb.chore.materias.entity.Materia;
+import com.backpack.bpweb.chore.materias.index.ConclusaoMateriasIndex;
 import com.backpack.bpweb.chore.materias.repository.MateriaRepository;
 import com.backpack.bpweb.user.entity.Usuarios;
 import jakarta.persistence.EntityNotFoundException;
@@ -14,15 +17,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class MateriaService {
 
     @Autowired
     private MateriaRepository repository;
+    @Autowired
+    private ConclusaoMateriasIndex conclusaoMateriasIndex;
+    @Autowired
+    private SugestoesIndex sugestoesIndex;
+    @Autowired
+    private CatalogoVersao catalogoVersao;
 
     // Publico
     public MateriaResponseDTO getMateriaById(Integer id) {
@@ -33,6 +42,7 @@ public class MateriaService {
     }
 
     // Somente para Admins
+    @Transactional
     public MateriaResponseDTO createMateria(MateriaDTO data) {
         if (repository.findByNome(data.nome()).isPresent()) {
             throw new IllegalArgumentException("Já existe uma Matéria com esse nome: " + data.nome());
@@ -41,25 +51,35 @@ public class MateriaService {
         Materia materia = new Materia();
         mapDtoToEntity(data, materia);
         repository.save(materia);
+        sugestoesIndex.atualizar(TipoSugestao.MATERIA, materia.getId(), materia.getNome());
+        catalogoVersao.incrementar();
         return new MateriaResponseDTO(materia);
     }
 
     // Somente para Admins
+    @Transactional
     public MateriaResponseDTO updateMateria(Integer id, MateriaDTO data) {
         Materia materia = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Matéria não encontrada com o id: " + id));
 
         mapDtoToEntity(data, materia);
         repository.save(materia);
+        conclusaoMateriasIndex.invalidarCatalogo();
+        sugestoesIndex.atualizar(TipoSugestao.MATERIA, materia.getId(), materia.getNome());
+        catalogoVersao.incrementar();
         return new MateriaResponseDTO(materia);
     }
 
     // Somente para Admins
+    @Transactional
     public void deleteMateria(Integer id) {
         if (!repository.existsById(id)) {
             throw new EntityNotFoundException("Matéria não encontrada com o id: " + id);
         }
         repository.deleteById(id);
+        conclusaoMateriasIndex.invalidarCatalogo();
+        sugestoesIndex.remover(TipoSugestao.MATERIA, id);
+        catalogoVersao.incrementar();
     }
 
     // Publico
@@ -76,21 +96,7 @@ public class MateriaService {
     public List<MateriaComConclusaoDTO> buscarMateriasComProgresso() throws AuthException {
         Usuarios usuarioLogado = getUsuarioLogado();
 
-        List<MateriaProgressoRawDTO> rawData = repository.findMateriasWithProgress(usuarioLogado);
-
-        return rawData.stream()
-                .map(raw -> {
-                    double percentual = 0.0;
-                    if (raw.totalAulas() > 0) {
-                        percentual = ((double) raw.aulasConcluidas() / raw.totalAulas()) * 100.0;
-                    }
-                    return new MateriaComConclusaoDTO(
-                            raw.materiaId(),
-                            raw.materiaNome(),
-                            percentual
-                    );
-                })
-                .collect(Collectors.toList());
+        return conclusaoMateriasIndex.percentuais(usuarioLogado.getId());
     }
 
     private Usuarios getUsuarioLogado() throws AuthException {
@@ -0,0 +1,26 @@
+package com.backpack.bpweb.chore.resumos.DTOs;
+
+import com.backpack.bpweb.chore.materias.DTOs.MateriaDTO;
+import com.backpack.bpweb.chore.resumos.repository.ResumoRepository;
+
+/**
+ * Resumo nas listagens: só um trecho do conteúdo. O conteúdo completo vem de {@code GET /api/v1/resumos/{id}}.
+ */
+public record ResumoListagemDTO(
+        Integer id,
+        String titulo,
+        String trecho,
+        boolean conteudoTruncado,
+        MateriaDTO materia
+) {
+
+    public ResumoListagemDTO(ResumoRepository.ResumoListagem resumo) {
+        this(
+                resumo.getId(),
+                resumo.getTitulo(),
+                resumo.getTrecho(),
+                resumo.getTamanhoConteudo() != null && resumo.getTrecho() != null && resumo.getTamanhoConteudo() > resumo.getTrecho().length(),
+                resumo.getMateriaNome() != null ? new MateriaDTO(resumo.getMateriaNome()) : null
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.backpack.bpweb.chore.resumos.controller;
 
+import com.backpack.bpweb.chore.catalogo.RespostasCatalogo;
 import com.backpack.bpweb.chore.resumos.DTOs.ResumoDTO;
+import com.backpack.bpweb.chore.resumos.DTOs.ResumoListagemDTO;
 import com.backpack.bpweb.chore.resumos.DTOs.ResumoResponseDTO;
 import com.backpack.bpweb.chore.resumos.service.ResumoService;
 import jakarta.persistence.EntityNotFoundException;
@@ -10,20 +12,25 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/resumo")
 public class ResumoController {
 
     @Autowired
     private ResumoService resumoService;
+    @Autowired
+    private RespostasCatalogo respostasCatalogo;
 
     //End-point aberto
     @GetMapping
     public ResponseEntity<?> findAllResumos(Integer materiaId, String searchTerm, Pageable pageable) {
         try {
-            Page<ResumoResponseDTO> resumoPage = resumoService.findResumoWithFilters(materiaId, searchTerm, pageable);
+            // Só a navegação sem busca vai para o cache; termos de busca variam demais para valer a memória.
+            if (searchTerm == null || searchTerm.isBlank()) {
+                return respostasCatalogo.responder(RespostasCatalogo.consultaPaginada("resumo", materiaId, pageable),
+                        () -> resumoService.findResumoWithFilters(materiaId, null, pageable));
+            }
+            Page<ResumoListagemDTO> resumoPage = resumoService.findResumoWithFilters(materiaId, searchTerm, pageable);
             return ResponseEntity.ok(resumoPage);
         } catch (NullPointerException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -33,8 +40,7 @@ public class ResumoController {
     @GetMapping("/by-materia/{materiaId}")
     public ResponseEntity<?> findResumosByMateriaId(@PathVariable(value = "materiaId") Integer materiaId) {
         try {
-            List<ResumoResponseDTO> resumos = resumoService.findAllResumosByMateriaId(materiaId);
-            return ResponseEntity.ok(resumos);
+            return respostasCatalogo.responder("resumo/by-materia/" + materiaId, () -> resumoService.findAllResumosByMateriaId(materiaId));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -1,5 +1,6 @@
 package com.backpack.bpweb.chore.resumos.repository;
 
+import com.backpack.bpweb.chore.busca.index.TituloCatalogo;
 import com.backpack.bpweb.chore.resumos.entity.Resumo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,18 +14,63 @@ import java.util.Optional;
 public interface ResumoRepository extends JpaRepository<Resumo, Integer> {
     Optional<Resumo> findByTitulo(String titulo);
 
+    @Query("SELECT r.id AS id, r.titulo AS titulo FROM Resumo r")
+    List<TituloCatalogo> findTitulos();
+
+    // Colunas da listagem: o conteúdo vem cortado em 200 caracteres, com o tamanho original ao lado.
+    String COLUNAS_LISTAGEM = "r.id AS id, r.titulo AS titulo, LEFT(r.conteudo, 200) AS trecho, " +
+            "LENGTH(r.conteudo) AS \"tamanhoConteudo\", m.nome AS \"materiaNome\" ";
+
     @Query(
             nativeQuery = true,
-            value = "SELECT r.* FROM resumos r " +
+            value = "SELECT " + COLUNAS_LISTAGEM + "FROM resumos r " +
                     "LEFT JOIN materias m ON m.id = r.materia_id " +
                     "WHERE (:materiaId IS NULL OR m.id = :materiaId) " +
+                    "AND (:searchTerm IS NULL OR LOWER(CAST(r.titulo AS TEXT)) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
+            countQuery = "SELECT COUNT(*) FROM resumos r " +
+                    "WHERE (:materiaId IS NULL OR r.materia_id = :materiaId) " +
                     "AND (:searchTerm IS NULL OR LOWER(CAST(r.titulo AS TEXT)) LIKE LOWER(CONCAT('%', :searchTerm, '%')))"
     )
-    Page<Resumo> findWithFilters(
+    Page<ResumoListagem> findWithFilters(
             @Param("materiaId") Integer materiaId,
             @Param("searchTerm") String searchTerm,
             Pageable pageable
     );
 
-    List<Resumo> findAllByMateriaId(Integer materiaId);
+    /**
+     * Busca em texto completo sobre a coluna {@code busca} (V12), ordenada por relevância.
+     * O Pageable não deve trazer ordenação: a ordem é a do ranking. {@code consulta} vem de
+     * {@link com.backpack.bpweb.chore.busca.ConsultaTextoCompleto#prefixada}.
+     */
+    @Query(
+            nativeQuery = true,
+            value = "SELECT " + COLUNAS_LISTAGEM + "FROM resumos r " +
+                    "CROSS JOIN to_tsquery('portuguese_unaccent', :consulta) q " +
+                    "LEFT JOIN materias m ON m.id = r.materia_id " +
+                    "WHERE (:materiaId IS NULL OR r.materia_id = :materiaId) AND r.busca @@ q " +
+                    "ORDER BY ts_rank_cd(r.busca, q) DESC, r.id",
+            countQuery = "SELECT COUNT(*) FROM resumos r " +
+                    "WHERE (:materiaId IS NULL OR r.materia_id = :materiaId) " +
+                    "AND r.busca @@ to_tsquery('portuguese_unaccent', :consulta)"
+    )
+    Page<ResumoListagem> buscarPorTexto(
+            @Param("materiaId") Integer materiaId,
+            @Param("consulta") String consulta,
+            Pageable pageable
+    );
+
+    @Query("SELECT r.id AS id, r.titulo AS titulo, SUBSTRING(r.conteudo, 1, 200) AS trecho, LENGTH(r.conteudo) AS tamanhoConteudo, " +
+            "m.nome AS materiaNome FROM Resumo r LEFT JOIN r.materia m WHERE m.id = :materiaId ORDER BY r.id")
+    List<ResumoListagem> findListagemByMateriaId(@Param("materiaId") Integer materiaId);
+
+    /**
+     * Resumo para listagens, sem o conteúdo completo: só os primeiros 200 caracteres.
+     */
+    interface ResumoListagem {
+        Integer getId();
+        String getTitulo();
+        String getTrecho();
+        Integer getTamanhoConteudo();
+        String getMateriaNome();
+    }
 }
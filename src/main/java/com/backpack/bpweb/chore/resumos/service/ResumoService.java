@@ -1,17 +1,28 @@
 package com.backpack.bpweb.chore.resumos.service;
 
+import com.backpack.bpweb.chore.busca.ConsultaTextoCompleto;
+import com.backpack.bpweb.chore.busca.index.SugestoesIndex;
+import com.backpack.bpweb.chore.busca.index.TipoSugestao;
+import com.backpack.bpweb.chore.catalogo.CatalogoVersao;
 import com.backpack.bpweb.chore.materias.entity.Materia;
 import com.backpack.bpweb.chore.materias.repository.MateriaRepository;
 import com.backpack.bpweb.chore.resumos.DTOs.ResumoDTO;
+import com.backpack.bpweb.chore.resumos.DTOs.ResumoListagemDTO;
 import com.backpack.bpweb.chore.resumos.DTOs.ResumoResponseDTO;
 import com.backpack.bpweb.chore.resumos.entity.Resumo;
 import com.backpack.bpweb.chore.resumos.repository.ResumoRepository;
+import com.backpack.bpweb.user.estatistica.repository.EstatisticasUsuarioRepository;
+import com.backpack.bpweb.user.estatistica.service.TotaisCatalogo;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,6 +33,17 @@ public class ResumoService {
     ResumoRepository repository;
     @Autowired
     MateriaRepository materiaRepository;
+    @Autowired
+    EstatisticasUsuarioRepository estatisticasUsuarioRepository;
+    @Autowired
+    TotaisCatalogo totaisCatalogo;
+    @Autowired
+    SugestoesIndex sugestoesIndex;
+    @Autowired
+    CatalogoVersao catalogoVersao;
+    // Com a busca em texto completo o resultado vem por relevância e a ordenação pedida só vale no LIKE.
+    @Value("${busca.texto-completo.habilitado:true}")
+    boolean buscaTextoCompleto;
 
     // publico
     public ResumoResponseDTO getResumoById(Integer id) {
@@ -31,6 +53,7 @@ public class ResumoService {
     }
 
     // Somente para admins
+    @Transactional
     public ResumoResponseDTO  createResumo(ResumoDTO data) {
         if (repository.findByTitulo(data.titulo()).isPresent()) {
             throw new IllegalArgumentException("Já existe um resumo com esse titulo: " + data.titulo());
@@ -39,45 +62,68 @@ public class ResumoService {
         Resumo resumo = new Resumo();
         mapDtoToEntity(data, resumo);
         repository.save(resumo);
+        totaisCatalogo.invalidarResumos();
+        sugestoesIndex.atualizar(TipoSugestao.RESUMO, resumo.getId(), resumo.getTitulo());
+        catalogoVersao.incrementar();
         return new ResumoResponseDTO(resumo);
     }
 
     // Somente para admins
+    @Transactional
     public ResumoResponseDTO updateResumo(Integer id, ResumoDTO data) {
         Resumo resumo = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Resumo não encontrado com o id: " + id));
 
         mapDtoToEntity(data, resumo);
         repository.save(resumo);
+        sugestoesIndex.atualizar(TipoSugestao.RESUMO, resumo.getId(), resumo.getTitulo());
+        catalogoVersao.incrementar();
         return new ResumoResponseDTO(resumo);
     }
 
     // Somente para admins
+    @Transactional
     public void deleteResumo(Integer id) {
         if (!repository.existsById(id)) {
             throw new EntityNotFoundException("Resumo não encontrado com o id: " + id);
         }
+        // O progresso do resumo sai em cascata no banco; as estatísticas de quem tinha progresso são recalculadas.
+        List<Integer> usuariosAfetados = estatisticasUsuarioRepository.findUsuariosComProgressoNoResumo(id);
         repository.deleteById(id);
+        repository.flush();
+        if (!usuariosAfetados.isEmpty()) {
+            estatisticasUsuarioRepository.recalcular(usuariosAfetados, ZoneId.systemDefault().getId());
+        }
+        totaisCatalogo.invalidarResumos();
+        sugestoesIndex.remover(TipoSugestao.RESUMO, id);
+        catalogoVersao.incrementar();
     }
 
     // publico
-    public Page<ResumoResponseDTO> findResumoWithFilters(Integer materiaId, String searchTerm, Pageable pageable) {
-        Page<Resumo> resumoPage = repository.findWithFilters(materiaId, searchTerm, pageable);
+    public Page<ResumoListagemDTO> findResumoWithFilters(Integer materiaId, String searchTerm, Pageable pageable) {
+        String consulta = buscaTextoCompleto ? ConsultaTextoCompleto.prefixada(searchTerm) : null;
+        Page<ResumoRepository.ResumoListagem> resumoPage = consulta != null
+                ? repository.buscarPorTexto(materiaId, consulta, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                : null;
+        // Termo só de palavras comuns ("de", "com") ou pedaço que não é prefixo de nenhum radical: vai pelo LIKE.
+        if (resumoPage == null || resumoPage.getTotalElements() == 0) {
+            resumoPage = repository.findWithFilters(materiaId, searchTerm, pageable);
+        }
         if (resumoPage.isEmpty()) {
             throw new NullPointerException("Nenhum resumo encontrado com os filtros definidos.");
         }
-        return resumoPage.map(ResumoResponseDTO::new);
+        return resumoPage.map(ResumoListagemDTO::new);
     }
 
     // public
-    public List<ResumoResponseDTO> findAllResumosByMateriaId(Integer materiaId) {
-        List<Resumo> resumos = repository.findAllByMateriaId(materiaId);
+    public List<ResumoListagemDTO> findAllResumosByMateriaId(Integer materiaId) {
+        List<ResumoRepository.ResumoListagem> resumos = repository.findListagemByMateriaId(materiaId);
         if (resumos.isEmpty()) {
             throw new EntityNotFoundException("Nenhum resumo encontrado com o id da materia informado.");
         }
         return resumos
                 .stream()
-                .map(ResumoResponseDTO::new)
+                .map(ResumoListagemDTO::new)
                 .collect(Collectors.toList());
     }
 
@@ -3,7 +3,8 @@ package com.backpack.bpweb.chore.simulado.DTOs;
 import java.util.List;
 
 public record SimuladoResponseDTO(
-        Integer tentativaId,
-        List<QuestaoSimuladoDTO> questoes
+        Integer tentativaId, // null quando o simulado é descrito por 'descritor'
+        List<QuestaoSimuladoDTO> questoes,
+        String descritor // Descritor assinado da prova; null quando a tentativa já foi criada na geração
 ) {
 }
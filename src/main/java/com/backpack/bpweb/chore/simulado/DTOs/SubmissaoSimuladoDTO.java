@@ -4,5 +4,6 @@ import java.util.Map;
 
 public record SubmissaoSimuladoDTO(
         Integer tentativaId, // O ID da tentativa que foi iniciada
-        Map<Integer, Integer> respostas // Mapa de {topicoId, alternativaEscolhidaId}
+        Map<Integer, Integer> respostas, // Mapa de {topicoId, alternativaEscolhidaId}
+        String descritor // Descritor recebido na geração, quando não há tentativaId
 ) {}
@@ -3,20 +3,39 @@ package com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.controller;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.service.AlternativasService;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasDTO;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasResponseDTO;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.service.FormatoImportacao;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.service.ImportacaoAlternativasService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1")
 public class AlternativasController {
 
+    private static final Logger log = LoggerFactory.getLogger(AlternativasController.class);
+
     private final AlternativasService alternativasService;
+    private final ImportacaoAlternativasService importacaoAlternativasService;
+    private final ObjectMapper objectMapper;
 
-    public AlternativasController(AlternativasService alternativasService) {
+    public AlternativasController(AlternativasService alternativasService, ImportacaoAlternativasService importacaoAlternativasService, ObjectMapper objectMapper) {
         this.alternativasService = alternativasService;
+        this.importacaoAlternativasService = importacaoAlternativasService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/topicos/{topicoId}/alternativas")
@@ -43,6 +62,60 @@ public class AlternativasController {
         }
     }
 
+    /**
+     * Importação em fluxo (NDJSON ou CSV). A resposta é NDJSON com uma linha de progresso
+     * por lote gravado, enviada assim que o lote é confirmado, e uma linha final com {@code concluido}.
+     */
+    @PostMapping(value = "/topicos/alternativas/importacao",
+            consumes = {FormatoImportacao.MEDIA_TYPE_NDJSON, FormatoImportacao.MEDIA_TYPE_CSV},
+            produces = FormatoImportacao.MEDIA_TYPE_NDJSON)
+    public void importarAlternativas(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        response.setContentType(FormatoImportacao.MEDIA_TYPE_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+
+        try (BufferedReader corpo = request.getReader()) {
+            // Formato e cabeçalho são conferidos antes de escrever qualquer byte: o 400 ainda pode ser enviado.
+            ImportacaoAlternativasService.Importacao importacao;
+            try {
+                importacao = importacaoAlternativasService.abrir(corpo, FormatoImportacao.doContentType(request.getContentType()));
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                escreverLinha(response.getOutputStream(), Map.of("erro", e.getMessage()));
+                return;
+            }
+            importar(importacao, response.getOutputStream());
+        }
+    }
+
+    // Daqui em diante a resposta já pode ter sido enviada em parte: todo erro vira uma linha NDJSON.
+    private void importar(ImportacaoAlternativasService.Importacao importacao, OutputStream saida) throws IOException {
+        try {
+            importacao.executar(progresso -> escreverLinha(saida, progresso));
+        } catch (UncheckedIOException e) {
+            // O cliente fechou a conexão; os lotes já confirmados permanecem.
+            log.info("Importação de alternativas interrompida pelo cliente: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            escreverLinha(saida, Map.of("erro", String.valueOf(e.getMessage())));
+        } catch (RuntimeException e) {
+            // Os lotes já confirmados permanecem; o cliente sabe onde parou pela última linha de progresso.
+            log.error("Falha na importação de alternativas", e);
+            escreverLinha(saida, Map.of("erro", "Importação interrompida por um erro inesperado no servidor."));
+        }
+    }
+
+    private void escreverLinha(OutputStream saida, Object conteudo) {
+        try {
+            saida.write(objectMapper.writeValueAsBytes(conteudo));
+            saida.write('\n');
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/topicos/{topicoId}/alternativas")
     public ResponseEntity<List<AlternativasResponseDTO>> getAllAlternativasByTopicoId(@PathVariable(value = "topicoId") Integer topicoId) {
         List<AlternativasResponseDTO> alternativas = alternativasService.findAllAlternativasByTopico(topicoId);
@@ -50,12 +123,14 @@ public class AlternativasController {
     }
 
     @PutMapping("/alternativas/{id}")
-    public ResponseEntity<AlternativasResponseDTO> updateAlternativa(@PathVariable Integer id, @RequestBody AlternativasDTO dto) {
+    public ResponseEntity<?> updateAlternativa(@PathVariable Integer id, @RequestBody AlternativasDTO dto) {
         try {
             AlternativasResponseDTO alternativa = alternativasService.updateAlternativa(id, dto);
             return ResponseEntity.ok(alternativa);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
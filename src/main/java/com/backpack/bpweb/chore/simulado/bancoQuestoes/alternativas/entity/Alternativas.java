@@ -27,4 +27,7 @@ public class Alternativas {
     @Column(name = "eh_correta", nullable = false)
     private boolean correta;
     private String justificativa;
+    // Ver HashAfirmativa; preenchido pelo serviço sempre que o texto é gravado.
+    @Column(name = "hash_afirmativa", length = 64)
+    private String hashAfirmativa;
 }
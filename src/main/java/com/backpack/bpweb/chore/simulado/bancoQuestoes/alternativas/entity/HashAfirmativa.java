@@ -0,0 +1,40 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Hash do texto normalizado de uma afirmativa, gravado em {@code alternativas.hash_afirmativa}.
+ * Duas afirmativas que só diferem em maiúsculas ou espaços em branco têm o mesmo hash.
+ * As linhas antigas foram recalculadas por esta mesma classe em {@code V13__Recalcular_hash_afirmativa}:
+ * o {@code lower()} do Postgres depende da collation e não serve de referência.
+ */
+public final class HashAfirmativa {
+
+    // Só espaços em branco ASCII, como no backfill original da V5.
+    private static final Pattern ESPACOS = Pattern.compile("[ \\t\\n\\r\\f\\u000B]+");
+
+    private HashAfirmativa() {
+    }
+
+    public static String normalizar(String texto) {
+        String colapsado = ESPACOS.matcher(texto).replaceAll(" ");
+        int inicio = colapsado.startsWith(" ") ? 1 : 0;
+        int fim = colapsado.endsWith(" ") && colapsado.length() > inicio ? colapsado.length() - 1 : colapsado.length();
+        return colapsado.substring(inicio, fim).toLowerCase(Locale.ROOT);
+    }
+
+    public static String calcular(String texto) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalizar(texto).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 é obrigatório em toda JVM.
+            throw new IllegalStateException(e);
+        }
+    }
+}
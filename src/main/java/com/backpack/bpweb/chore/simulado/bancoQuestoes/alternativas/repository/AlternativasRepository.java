@@ -5,31 +5,33 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface AlternativasRepository extends JpaRepository<Alternativas, Integer> {
+public interface AlternativasRepository extends JpaRepository<Alternativas, Integer>, AlternativasRepositoryCustom {
     List<Alternativas> findByTopicosQuestoes_Id(int topicosQuestoesId);
 
-    Optional<Alternativas> findByTextoAfirmativa(String textoAfirmativa);
-
     Optional<Alternativas> findByTopicosQuestoes_IdAndCorretaIsTrue(int topicosQuestoesId);
 
+    List<Alternativas> findByTopicosQuestoes_IdInAndCorretaIsTrue(Collection<Integer> topicosQuestoesIds);
+
     Optional<Alternativas> findById(int id);
 
+    boolean existsByHashAfirmativa(String hashAfirmativa);
+
+    boolean existsByHashAfirmativaAndIdNot(String hashAfirmativa, int id);
+
     /**
-     * Busca UMA alternativa correta aleatoriamente para um dado tópico.
-     * Usa Query Nativa para a função RANDOM() do PostgreSQL.
+     * Devolve só os hashes que já existem, sem carregar as entidades. Usa o índice único de hash_afirmativa.
      */
-    @Query(value = "SELECT * FROM alternativas WHERE topico_id = :topicoId AND eh_correta = true ORDER BY RANDOM() LIMIT 1", nativeQuery = true)
-    Optional<Alternativas> findCorrectAlternativeRandomly(@Param("topicoId") Integer topicoId);
+    @Query("SELECT a.hashAfirmativa FROM Alternativas a WHERE a.hashAfirmativa IN :hashes")
+    List<String> findHashesExistentes(@Param("hashes") Collection<String> hashes);
 
     /**
-     * Busca um número específico de alternativas incorretas aleatoriamente para um dado tópico.
-     * Usa Query Nativa para a função RANDOM() do PostgreSQL.
+     * Carrega todas as alternativas dos tópicos de uma matéria em uma única consulta.
+     * Usado para montar o índice em memória do banco de questões.
      */
-    @Query(value = "SELECT * FROM alternativas WHERE topico_id = :topicoId AND eh_correta = false ORDER BY RANDOM() LIMIT :limit", nativeQuery = true)
-    List<Alternativas> findIncorrectAlternativesRandomly(@Param("topicoId") Integer topicoId, @Param("limit") int limit);
-
-    List<Alternativas> findByTextoAfirmativaIn(List<String> textos);
+    @Query("SELECT a FROM Alternativas a JOIN FETCH a.topicosQuestoes t WHERE t.materia.id = :materiaId")
+    List<Alternativas> findAllByMateriaId(@Param("materiaId") Integer materiaId);
 }
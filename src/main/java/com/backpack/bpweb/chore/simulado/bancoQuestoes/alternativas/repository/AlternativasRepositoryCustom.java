@@ -0,0 +1,27 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository;
+
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasDTO;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface AlternativasRepositoryCustom {
+
+    /**
+     * Insere as alternativas em um único comando, sem carregar entidades no contexto de persistência.
+     * Alternativas cujo hash já existe são ignoradas em vez de abortar a transação.
+     * Os tópicos precisam ter sido validados antes.
+     *
+     * @return os hashes das alternativas que foram de fato inseridas
+     */
+    Set<String> inserirIgnorandoDuplicadas(List<AlternativasDTO> alternativas);
+
+    /**
+     * Percorre todos os hashes gravados sem trazê-los de uma vez para a memória.
+     * A transação é necessária para o driver do Postgres usar cursor com fetch size.
+     */
+    @Transactional(readOnly = true)
+    void percorrerHashes(Consumer<String> consumidor);
+}
@@ -0,0 +1,75 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository;
+
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasDTO;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.HashAfirmativa;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class AlternativasRepositoryCustomImpl implements AlternativasRepositoryCustom {
+
+    // Um único INSERT com arrays: o RETURNING diz quais linhas entraram, o que um batch com
+    // reWriteBatchedInserts não informa (os contadores voltam como SUCCESS_NO_INFO).
+    private static final String INSERT_ALTERNATIVAS = """
+            INSERT INTO alternativas (topico_id, texto_afirmativa, eh_correta, justificativa, hash_afirmativa)
+            SELECT * FROM unnest(?::bigint[], ?::text[], ?::boolean[], ?::text[], ?::text[])
+            ON CONFLICT (hash_afirmativa) DO NOTHING
+            RETURNING hash_afirmativa
+            """;
+
+    private static final String SELECT_HASHES = "SELECT hash_afirmativa FROM alternativas WHERE hash_afirmativa IS NOT NULL";
+
+    private static final int FETCH_SIZE_HASHES = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlternativasRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Set<String> inserirIgnorandoDuplicadas(List<AlternativasDTO> alternativas) {
+        if (alternativas.isEmpty()) {
+            return Set.of();
+        }
+        int total = alternativas.size();
+        Long[] topicos = new Long[total];
+        String[] textos = new String[total];
+        Boolean[] corretas = new Boolean[total];
+        String[] justificativas = new String[total];
+        String[] hashes = new String[total];
+        for (int i = 0; i < total; i++) {
+            AlternativasDTO alternativa = alternativas.get(i);
+            topicos[i] = alternativa.topico().longValue();
+            textos[i] = alternativa.afirmativa();
+            corretas[i] = alternativa.correta();
+            justificativas[i] = alternativa.justificativa();
+            hashes[i] = HashAfirmativa.calcular(alternativa.afirmativa());
+        }
+
+        Set<String> inseridos = new HashSet<>();
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(INSERT_ALTERNATIVAS);
+            ps.setArray(1, connection.createArrayOf("bigint", topicos));
+            ps.setArray(2, connection.createArrayOf("text", textos));
+            ps.setArray(3, connection.createArrayOf("boolean", corretas));
+            ps.setArray(4, connection.createArrayOf("text", justificativas));
+            ps.setArray(5, connection.createArrayOf("text", hashes));
+            return ps;
+        }, (RowCallbackHandler) rs -> inseridos.add(rs.getString(1)));
+        return inseridos;
+    }
+
+    @Override
+    public void percorrerHashes(Consumer<String> consumidor) {
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(SELECT_HASHES);
+            ps.setFetchSize(FETCH_SIZE_HASHES);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumidor.accept(rs.getString(1)));
+    }
+}
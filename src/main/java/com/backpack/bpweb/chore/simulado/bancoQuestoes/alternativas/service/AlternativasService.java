@@ -1,12 +1,17 @@
 package com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.service;
 
+import com.backpack.bpweb.chore.catalogo.CatalogoVersao;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasDTO;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasResponseDTO;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.Alternativas;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.HashAfirmativa;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository.AlternativasRepository;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.gabarito.GabaritoCache;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.index.BancoQuestoesIndex;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.entity.TopicosQuestoes;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.repository.TopicosQuestoesRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +22,19 @@ import java.util.stream.Collectors;
 public class AlternativasService {
     private final AlternativasRepository alternativasRepository;
     private final TopicosQuestoesRepository topicosQuestoesRepository;
+    private final BancoQuestoesIndex bancoQuestoesIndex;
+    private final GabaritoCache gabaritoCache;
+    private final FiltroAfirmativas filtroAfirmativas;
+    private final CatalogoVersao catalogoVersao;
 
-    public AlternativasService(AlternativasRepository alternativasRepository, TopicosQuestoesRepository topicosQuestoesRepository) {
+    public AlternativasService(AlternativasRepository alternativasRepository, TopicosQuestoesRepository topicosQuestoesRepository, BancoQuestoesIndex bancoQuestoesIndex, GabaritoCache gabaritoCache, FiltroAfirmativas filtroAfirmativas,
+                               CatalogoVersao catalogoVersao) {
         this.alternativasRepository = alternativasRepository;
         this.topicosQuestoesRepository = topicosQuestoesRepository;
+        this.bancoQuestoesIndex = bancoQuestoesIndex;
+        this.gabaritoCache = gabaritoCache;
+        this.filtroAfirmativas = filtroAfirmativas;
+        this.catalogoVersao = catalogoVersao;
     }
 
     // privado
@@ -29,13 +43,20 @@ public class AlternativasService {
         if (!topicosQuestoesRepository.existsById(dto.topico())) {
             throw new EntityNotFoundException("Topico não encontrado com o id: " + dto.topico());
         }
-        if (alternativasRepository.findByTextoAfirmativa(dto.afirmativa()).isPresent()) {
+        String hash = HashAfirmativa.calcular(dto.afirmativa());
+        // O filtro descarta a maioria dos textos novos sem consulta; o índice único confirma o resto.
+        if (filtroAfirmativas.talvezExista(hash) && alternativasRepository.existsByHashAfirmativa(hash)) {
             throw new IllegalArgumentException("Já existe uma alternativa com esse texto: " + dto.afirmativa());
         }
 
         Alternativas novaAlternativa = new Alternativas();
         mapDtoToEntity(dto, novaAlternativa);
-        alternativasRepository.save(novaAlternativa);
+        salvarComTextoUnico(List.of(novaAlternativa));
+        bancoQuestoesIndex.invalidar(materiaDaAlternativa(novaAlternativa));
+        if (novaAlternativa.isCorreta()) {
+            gabaritoCache.invalidar(List.of(novaAlternativa.getTopicosQuestoes().getId()));
+        }
+        catalogoVersao.incrementar();
         return new AlternativasResponseDTO(novaAlternativa);
     }
 
@@ -46,13 +67,19 @@ public class AlternativasService {
         }
 
         // --- OTIMIZAÇÃO 1: Validar todas as afirmativas de uma só vez ---
-        // 1. Extrai todos os textos das afirmativas da lista de DTOs.
-        List<String> textosAfirmativas = dtos.stream().map(AlternativasDTO::afirmativa).collect(Collectors.toList());
+        // 1. Calcula o hash de cada afirmativa, recusando repetições dentro da própria lista.
+        Map<String, AlternativasDTO> dtosPorHash = new LinkedHashMap<>();
+        for (AlternativasDTO dto : dtos) {
+            if (dtosPorHash.putIfAbsent(HashAfirmativa.calcular(dto.afirmativa()), dto) != null) {
+                throw new IllegalArgumentException("A lista contém alternativas repetidas. Ex: '" + dto.afirmativa() + "'");
+            }
+        }
 
-        // 2. Faz UMA ÚNICA consulta ao banco para ver se alguma delas já existe.
-        List<Alternativas> existentes = alternativasRepository.findByTextoAfirmativaIn(textosAfirmativas);
+        // 2. Só os hashes que o filtro não descarta vão ao banco, em UMA ÚNICA consulta pelo índice.
+        List<String> candidatos = dtosPorHash.keySet().stream().filter(filtroAfirmativas::talvezExista).toList();
+        List<String> existentes = candidatos.isEmpty() ? List.of() : alternativasRepository.findHashesExistentes(candidatos);
         if (!existentes.isEmpty()) {
-            throw new IllegalArgumentException("Uma ou mais alternativas já existem no banco de dados. Ex: '" + existentes.getFirst().getTextoAfirmativa() + "'");
+            throw new IllegalArgumentException("Uma ou mais alternativas já existem no banco de dados. Ex: '" + dtosPorHash.get(existentes.getFirst()).afirmativa() + "'");
         }
 
         // --- OTIMIZAÇÃO 2: Buscar todos os tópicos necessários de uma só vez ---
@@ -85,12 +112,24 @@ public class AlternativasService {
             novaAlternativa.setTextoAfirmativa(dto.afirmativa());
             novaAlternativa.setCorreta(dto.correta());
             novaAlternativa.setJustificativa(dto.justificativa());
+            novaAlternativa.setHashAfirmativa(HashAfirmativa.calcular(dto.afirmativa()));
 
             alternativasToSave.add(novaAlternativa);
         }
 
         // 9. Salva todas as novas alternativas em UMA ÚNICA operação de lote.
-        List<Alternativas> savedAlternativas = alternativasRepository.saveAll(alternativasToSave);
+        List<Alternativas> savedAlternativas = salvarComTextoUnico(alternativasToSave);
+        topicosMap.values().stream()
+                .map(topico -> topico.getMateria().getId())
+                .distinct()
+                .forEach(bancoQuestoesIndex::invalidar);
+        // Só o gabarito dos tópicos que ganharam uma alternativa correta muda
+        gabaritoCache.invalidar(dtos.stream()
+                .filter(AlternativasDTO::correta)
+                .map(AlternativasDTO::topico)
+                .collect(Collectors.toSet()));
+        // As alternativas de um tópico também são lidas pelo catálogo e dependem da ETag dele.
+        catalogoVersao.incrementar();
 
         // 10. Mapeia as entidades salvas para DTOs de resposta.
         return savedAlternativas.stream()
@@ -112,18 +151,73 @@ public class AlternativasService {
     public AlternativasResponseDTO updateAlternativa(Integer id, AlternativasDTO data) {
         Alternativas alternativaExistente = alternativasRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Alternativa nao encontrada com o id: " + id));
+        String hash = HashAfirmativa.calcular(data.afirmativa());
+        // Duplicata anterior ao índice único (hash NULL desde a V5): pode ser editada enquanto mantiver o texto,
+        // e continua sem hash, senão colidiria com a gêmea que ficou com ele.
+        boolean duplicataLegada = alternativaExistente.getHashAfirmativa() == null
+                && hash.equals(HashAfirmativa.calcular(alternativaExistente.getTextoAfirmativa()));
+        if (!duplicataLegada
+                && !hash.equals(alternativaExistente.getHashAfirmativa())
+                && filtroAfirmativas.talvezExista(hash)
+                && alternativasRepository.existsByHashAfirmativaAndIdNot(hash, id)) {
+            throw new IllegalArgumentException("Já existe uma alternativa com esse texto: " + data.afirmativa());
+        }
+        Integer materiaAnterior = materiaDaAlternativa(alternativaExistente);
+        Integer topicoAnterior = alternativaExistente.getTopicosQuestoes().getId();
+        boolean eraCorreta = alternativaExistente.isCorreta();
 
         mapDtoToEntity(data, alternativaExistente);
-        alternativasRepository.save(alternativaExistente);
+        if (duplicataLegada) {
+            alternativaExistente.setHashAfirmativa(null);
+        }
+        salvarComTextoUnico(List.of(alternativaExistente));
+        bancoQuestoesIndex.invalidar(materiaAnterior);
+        bancoQuestoesIndex.invalidar(materiaDaAlternativa(alternativaExistente));
+        if (eraCorreta || alternativaExistente.isCorreta()) {
+            gabaritoCache.invalidar(List.of(topicoAnterior, alternativaExistente.getTopicosQuestoes().getId()));
+        }
+        catalogoVersao.incrementar();
         return new AlternativasResponseDTO(alternativaExistente);
     }
 
     @Transactional
     public void deleteAlternativa(Integer id) {
-        if (!alternativasRepository.existsById(id)) {
-            throw new EntityNotFoundException("Alternativa nao encontrada com o id: " + id);
+        Alternativas alternativa = alternativasRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Alternativa nao encontrada com o id: " + id));
+        alternativasRepository.delete(alternativa);
+        bancoQuestoesIndex.invalidar(materiaDaAlternativa(alternativa));
+        if (alternativa.isCorreta()) {
+            gabaritoCache.invalidar(List.of(alternativa.getTopicosQuestoes().getId()));
+        }
+        catalogoVersao.incrementar();
+    }
+
+    /**
+     * Grava e força o flush para que uma violação do índice único de hash_afirmativa
+     * (inserção concorrente do mesmo texto) vire o mesmo erro da verificação prévia.
+     */
+    private List<Alternativas> salvarComTextoUnico(List<Alternativas> alternativas) {
+        try {
+            List<Alternativas> salvas = alternativasRepository.saveAllAndFlush(alternativas);
+            salvas.stream()
+                    .map(Alternativas::getHashAfirmativa)
+                    .filter(Objects::nonNull)
+                    .forEach(filtroAfirmativas::adicionar);
+            return salvas;
+        } catch (DataIntegrityViolationException e) {
+            String causa = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (causa.contains("ux_alternativas_hash_afirmativa")) {
+                throw new IllegalArgumentException(alternativas.size() == 1
+                        ? "Já existe uma alternativa com esse texto: " + alternativas.getFirst().getTextoAfirmativa()
+                        : "Uma ou mais alternativas já existem no banco de dados.");
+            }
+            throw e;
         }
-        alternativasRepository.deleteById(id);
+    }
+
+    private Integer materiaDaAlternativa(Alternativas alternativa) {
+        TopicosQuestoes topico = alternativa.getTopicosQuestoes();
+        return topico != null && topico.getMateria() != null ? topico.getMateria().getId() : null;
     }
 
 
@@ -135,6 +229,7 @@ public class AlternativasService {
         entity.setTextoAfirmativa(dto.afirmativa());
         entity.setCorreta(dto.correta());
         entity.setJustificativa(dto.justificativa());
+        entity.setHashAfirmativa(HashAfirmativa.calcular(dto.afirmativa()));
     }
 
     private void mapDtosToEntitys(AlternativasDTO dto, Alternativas entity, TopicosQuestoes topico) {
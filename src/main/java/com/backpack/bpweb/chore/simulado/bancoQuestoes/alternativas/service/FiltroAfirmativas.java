@@ -0,0 +1,105 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.service;
+
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository.AlternativasRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom dos hashes de afirmativas já gravadas. Responde "com certeza não existe"
+ * sem ir ao banco; "talvez exista" ainda é confirmado pelo índice único de {@code hash_afirmativa}.
+ *
+ * <p>Enquanto o filtro não terminou de carregar, toda consulta responde "talvez", então o
+ * comportamento é o mesmo de antes. Exclusões não tiram bits do filtro: só aumentam os falsos
+ * positivos até a próxima reinicialização, o que nunca gera falso negativo.</p>
+ */
+@Component
+public class FiltroAfirmativas {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroAfirmativas.class);
+
+    private final AlternativasRepository alternativasRepository;
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+    private final Counter descartadasPeloFiltro;
+    private final Counter conferidasNoBanco;
+    private volatile boolean carregado;
+
+    public FiltroAfirmativas(AlternativasRepository alternativasRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${simulado.alternativas.filtro.capacidade:1000000}") long capacidade,
+                             @Value("${simulado.alternativas.filtro.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.alternativasRepository = alternativasRepository;
+        // m = -n ln(p) / (ln 2)^2 e k = (m / n) ln 2, arredondando m para múltiplo de 64.
+        long bitsIdeais = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.max(1, (bitsIdeais + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.totalBits = (long) palavras * 64;
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * Math.log(2)));
+        this.descartadasPeloFiltro = Counter.builder("alternativas.duplicidade.verificacoes").tag("resultado", "filtro").register(meterRegistry);
+        this.conferidasNoBanco = Counter.builder("alternativas.duplicidade.verificacoes").tag("resultado", "banco").register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        long[] total = {0};
+        alternativasRepository.percorrerHashes(hash -> {
+            adicionar(hash);
+            total[0]++;
+        });
+        carregado = true;
+        log.info("Filtro de afirmativas carregado com {} hashes em {} ms", total[0], System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * {@code false} significa que nenhuma alternativa com esse hash foi gravada.
+     * {@code true} significa que é preciso conferir no banco.
+     */
+    public boolean talvezExista(String hash) {
+        boolean talvez = !carregado || contem(hash);
+        (talvez ? conferidasNoBanco : descartadasPeloFiltro).increment();
+        return talvez;
+    }
+
+    /**
+     * Registra um hash gravado. Pode ser chamado antes do commit: se a transação
+     * for desfeita, o pior caso é um falso positivo.
+     */
+    public void adicionar(String hash) {
+        // O SHA-256 já é uniforme: os dois primeiros blocos de 64 bits servem de base para o double hashing.
+        long h1 = Long.parseUnsignedLong(hash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hash, 16, 32, 16);
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, totalBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+            } while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    private boolean contem(String hash) {
+        long h1 = Long.parseUnsignedLong(hash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hash, 16, 32, 16);
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.gabarito;
+
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.Alternativas;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository.AlternativasRepository;
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gabarito de cada tópico (alternativa correta e justificativa), guardado no cache
+ * {@link CacheConfiguration#GABARITO}. A correção lê todos os tópicos da prova de uma vez
+ * e só vai ao banco pelos que faltam; as alterações em alternativas e a exclusão de tópicos
+ * descartam apenas os tópicos afetados, depois do commit.
+ *
+ * <p>Um gabarito lido do banco só entra no cache se nenhuma invalidação aconteceu desde antes
+ * da leitura (contador de geração, como no {@code SimuladoPool}): uma leitura feita antes de um
+ * commit não volta para o cache depois do descarte. O TTL do cache cobre as alterações feitas em
+ * outra instância e a janela curta entre a conferência da geração e a gravação.</p>
+ */
+@Component
+public class GabaritoCache {
+
+    private final AlternativasRepository alternativasRepository;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+    private final AtomicLong geracao = new AtomicLong();
+
+    public GabaritoCache(AlternativasRepository alternativasRepository, CacheManager cacheManager) {
+        this.alternativasRepository = alternativasRepository;
+        // Acesso direto ao Caffeine para ter leitura em lote; as estatísticas continuam as do cache registrado.
+        this.cache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.GABARITO))).getNativeCache();
+    }
+
+    /**
+     * Devolve o gabarito dos tópicos pedidos. Tópicos sem alternativa correta ficam de fora do mapa.
+     */
+    public Map<Integer, Gabarito> buscar(Collection<Integer> topicoIds) {
+        long geracaoLida = geracao.get();
+        Map<Object, Object> encontrados = cache.getAllPresent(topicoIds);
+
+        Map<Integer, Gabarito> gabaritos = new HashMap<>(topicoIds.size() * 2);
+        encontrados.forEach((topicoId, gabarito) -> gabaritos.put((Integer) topicoId, (Gabarito) gabarito));
+        Set<Integer> faltando = new HashSet<>(topicoIds);
+        faltando.removeAll(gabaritos.keySet());
+        if (!faltando.isEmpty()) {
+            Map<Integer, Gabarito> carregados = carregar(faltando);
+            gabaritos.putAll(carregados);
+            if (geracao.get() == geracaoLida) {
+                cache.putAll(carregados);
+            }
+        }
+        return gabaritos;
+    }
+
+    /**
+     * Geração atual, lida pelo índice do banco de questões antes de carregar as alternativas.
+     */
+    public long geracao() {
+        return geracao.get();
+    }
+
+    /**
+     * Usado pelo índice do banco de questões, que já carrega as alternativas corretas da matéria.
+     * Ignorado se alguma invalidação aconteceu depois de {@code geracaoLida}.
+     */
+    public void aquecer(long geracaoLida, int topicoId, Alternativas correta) {
+        if (geracao.get() == geracaoLida) {
+            cache.put(topicoId, Gabarito.de(correta));
+        }
+    }
+
+    /**
+     * Descarta o gabarito dos tópicos depois do commit da transação atual.
+     */
+    public void invalidar(Collection<Integer> topicoIds) {
+        if (topicoIds.isEmpty()) {
+            return;
+        }
+        List<Integer> copia = List.copyOf(topicoIds);
+        TransactionHooks.afterCommit(() -> {
+            // A geração sobe antes do descarte: uma leitura em andamento não grava por cima dele.
+            geracao.incrementAndGet();
+            cache.invalidateAll(copia);
+        });
+    }
+
+    private Map<Integer, Gabarito> carregar(Set<Integer> topicoIds) {
+        Map<Integer, Gabarito> carregados = new HashMap<>();
+        for (Alternativas correta : alternativasRepository.findByTopicosQuestoes_IdInAndCorretaIsTrue(topicoIds)) {
+            carregados.putIfAbsent(correta.getTopicosQuestoes().getId(), Gabarito.de(correta));
+        }
+        return carregados;
+    }
+
+    public record Gabarito(int alternativaId, String texto, String justificativa) {
+        static Gabarito de(Alternativas correta) {
+            return new Gabarito(correta.getId(), correta.getTextoAfirmativa(), correta.getJustificativa());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.DTOs;
+
+import java.util.List;
+
+/**
+ * Uma linha do retorno NDJSON da importação, emitida a cada lote gravado.
+ * Os totais são acumulados; as rejeições são só as do lote.
+ */
+public record ProgressoImportacaoDTO(
+        int lote,
+        long linhasLidas,
+        long inseridas,
+        long rejeitadas,
+        List<RejeicaoImportacaoDTO> rejeicoes,
+        boolean concluido
+) {}
@@ -0,0 +1,6 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.DTOs;
+
+public record RejeicaoImportacaoDTO(
+        long linha,
+        String motivo
+) {}
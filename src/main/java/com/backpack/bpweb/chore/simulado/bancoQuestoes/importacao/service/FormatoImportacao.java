@@ -0,0 +1,25 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.service;
+
+import org.springframework.http.MediaType;
+
+public enum FormatoImportacao {
+    NDJSON,
+    CSV;
+
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    public static final String MEDIA_TYPE_CSV = "text/csv";
+
+    public static FormatoImportacao doContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))) {
+                return NDJSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(MEDIA_TYPE_CSV))) {
+                return CSV;
+            }
+        }
+        throw new IllegalArgumentException("Formato de importação não suportado: " + contentType
+                + ". Use " + MEDIA_TYPE_NDJSON + " ou " + MEDIA_TYPE_CSV + ".");
+    }
+}
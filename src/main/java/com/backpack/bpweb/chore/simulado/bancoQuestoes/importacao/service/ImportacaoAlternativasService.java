@@ -0,0 +1,209 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.service;
+
+import com.backpack.bpweb.chore.catalogo.CatalogoVersao;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasDTO;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.HashAfirmativa;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository.AlternativasRepository;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.service.FiltroAfirmativas;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.gabarito.GabaritoCache;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.DTOs.ProgressoImportacaoDTO;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.DTOs.RejeicaoImportacaoDTO;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.index.BancoQuestoesIndex;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.repository.TopicosQuestoesRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de alternativas em fluxo. O corpo é lido registro a registro e gravado
+ * em lotes de tamanho fixo, cada um na sua própria transação: a memória usada
+ * depende do tamanho do lote, não do arquivo, e um erro em um lote não desfaz os anteriores.
+ *
+ * <p>Diferente de {@code createMultipleAlternativas}, que é tudo ou nada, aqui uma linha
+ * inválida só é rejeitada e relatada no progresso.</p>
+ */
+@Service
+public class ImportacaoAlternativasService {
+
+    private final AlternativasRepository alternativasRepository;
+    private final TopicosQuestoesRepository topicosQuestoesRepository;
+    private final BancoQuestoesIndex bancoQuestoesIndex;
+    private final GabaritoCache gabaritoCache;
+    private final CatalogoVersao catalogoVersao;
+    private final FiltroAfirmativas filtroAfirmativas;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+
+    public ImportacaoAlternativasService(AlternativasRepository alternativasRepository,
+                                         TopicosQuestoesRepository topicosQuestoesRepository,
+                                         BancoQuestoesIndex bancoQuestoesIndex,
+                                         GabaritoCache gabaritoCache,
+                                         CatalogoVersao catalogoVersao,
+                                         FiltroAfirmativas filtroAfirmativas,
+                                         ObjectMapper objectMapper,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${simulado.importacao.tamanho-lote:500}") int tamanhoLote) {
+        this.alternativasRepository = alternativasRepository;
+        this.topicosQuestoesRepository = topicosQuestoesRepository;
+        this.bancoQuestoesIndex = bancoQuestoesIndex;
+        this.gabaritoCache = gabaritoCache;
+        this.catalogoVersao = catalogoVersao;
+        this.filtroAfirmativas = filtroAfirmativas;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Abre a leitura do corpo e confere o formato antes de qualquer gravação, para que o chamador
+     * ainda possa recusar a requisição inteira.
+     *
+     * @throws IllegalArgumentException se o CSV não tiver o cabeçalho esperado
+     */
+    public Importacao abrir(BufferedReader corpo, FormatoImportacao formato) throws IOException {
+        return new Importacao(new LeitorImportacao(corpo, formato, objectMapper));
+    }
+
+    /**
+     * Importação com o formato já conferido, pronta para gravar.
+     */
+    public final class Importacao {
+
+        private final LeitorImportacao leitor;
+
+        private Importacao(LeitorImportacao leitor) {
+            this.leitor = leitor;
+        }
+
+        /**
+         * Importa todas as alternativas do corpo, chamando {@code progresso} depois do commit de cada lote
+         * e uma última vez com {@code concluido = true}.
+         */
+        public ProgressoImportacaoDTO executar(Consumer<ProgressoImportacaoDTO> progresso) throws IOException {
+            List<LeitorImportacao.Registro> lote = new ArrayList<>(tamanhoLote);
+            Totais totais = new Totais();
+            LeitorImportacao.Registro registro;
+            while ((registro = leitor.proximo()) != null) {
+                lote.add(registro);
+                if (lote.size() == tamanhoLote) {
+                    progresso.accept(gravarLote(lote, totais));
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                progresso.accept(gravarLote(lote, totais));
+            }
+
+            ProgressoImportacaoDTO resultado = new ProgressoImportacaoDTO(totais.lotes, totais.lidas, totais.inseridas, totais.rejeitadas, List.of(), true);
+            progresso.accept(resultado);
+            return resultado;
+        }
+    }
+
+    private ProgressoImportacaoDTO gravarLote(List<LeitorImportacao.Registro> lote, Totais totais) {
+        List<RejeicaoImportacaoDTO> rejeicoes = new ArrayList<>();
+        int inseridas = Objects.requireNonNull(transactionTemplate.execute(status -> validarEInserir(lote, rejeicoes)));
+
+        totais.lotes++;
+        totais.lidas += lote.size();
+        totais.inseridas += inseridas;
+        totais.rejeitadas += rejeicoes.size();
+        return new ProgressoImportacaoDTO(totais.lotes, totais.lidas, totais.inseridas, totais.rejeitadas, rejeicoes, false);
+    }
+
+    private int validarEInserir(List<LeitorImportacao.Registro> lote, List<RejeicaoImportacaoDTO> rejeicoes) {
+        // Consultas do lote inteiro de uma vez, trazendo só ids e hashes: nada entra no contexto de persistência.
+        Set<Integer> topicoIds = new HashSet<>();
+        Map<LeitorImportacao.Registro, String> hashes = new HashMap<>();
+        for (LeitorImportacao.Registro registro : lote) {
+            if (registro.alternativa() != null) {
+                if (registro.alternativa().topico() != null) {
+                    topicoIds.add(registro.alternativa().topico());
+                }
+                if (registro.alternativa().afirmativa() != null) {
+                    hashes.put(registro, HashAfirmativa.calcular(registro.alternativa().afirmativa()));
+                }
+            }
+        }
+        Map<Integer, Integer> materiaPorTopico = topicoIds.isEmpty() ? Map.of() : topicosQuestoesRepository.findMateriasDosTopicos(topicoIds).stream()
+                .collect(Collectors.toMap(TopicosQuestoesRepository.TopicoMateria::getId, TopicosQuestoesRepository.TopicoMateria::getMateriaId));
+        // Só os hashes que o filtro não descarta vão ao banco.
+        List<String> candidatos = hashes.values().stream().distinct().filter(filtroAfirmativas::talvezExista).toList();
+        Set<String> hashesExistentes = candidatos.isEmpty() ? Set.of() : new HashSet<>(alternativasRepository.findHashesExistentes(candidatos));
+
+        List<LeitorImportacao.Registro> aceitos = new ArrayList<>(lote.size());
+        Set<String> hashesDoLote = new HashSet<>();
+        for (LeitorImportacao.Registro registro : lote) {
+            String motivo = motivoRejeicao(registro, hashes.get(registro), materiaPorTopico, hashesExistentes, hashesDoLote);
+            if (motivo != null) {
+                rejeicoes.add(new RejeicaoImportacaoDTO(registro.linha(), motivo));
+            } else {
+                aceitos.add(registro);
+            }
+        }
+
+        Set<String> inseridos = alternativasRepository.inserirIgnorandoDuplicadas(
+                aceitos.stream().map(LeitorImportacao.Registro::alternativa).toList());
+        inseridos.forEach(filtroAfirmativas::adicionar);
+
+        // O que não entrou foi gravado por outra requisição entre a verificação e o INSERT.
+        List<AlternativasDTO> gravadas = new ArrayList<>(inseridos.size());
+        for (LeitorImportacao.Registro registro : aceitos) {
+            if (inseridos.contains(hashes.get(registro))) {
+                gravadas.add(registro.alternativa());
+            } else {
+                rejeicoes.add(new RejeicaoImportacaoDTO(registro.linha(), "Já existe uma alternativa com esse texto: " + registro.alternativa().afirmativa()));
+            }
+        }
+
+        gravadas.stream()
+                .map(alternativa -> materiaPorTopico.get(alternativa.topico()))
+                .distinct()
+                .forEach(bancoQuestoesIndex::invalidar);
+        gabaritoCache.invalidar(gravadas.stream()
+                .filter(AlternativasDTO::correta)
+                .map(AlternativasDTO::topico)
+                .collect(Collectors.toSet()));
+        if (!gravadas.isEmpty()) {
+            catalogoVersao.incrementar();
+        }
+        return gravadas.size();
+    }
+
+    private String motivoRejeicao(LeitorImportacao.Registro registro, String hash, Map<Integer, Integer> materiaPorTopico,
+                                  Set<String> hashesExistentes, Set<String> hashesDoLote) {
+        if (registro.erro() != null) {
+            return registro.erro();
+        }
+        AlternativasDTO alternativa = registro.alternativa();
+        if (alternativa.topico() == null) {
+            return "Tópico não informado.";
+        }
+        if (alternativa.afirmativa() == null || alternativa.afirmativa().isBlank()) {
+            return "Afirmativa não informada.";
+        }
+        if (!materiaPorTopico.containsKey(alternativa.topico())) {
+            return "Topico não encontrado com o id: " + alternativa.topico();
+        }
+        if (hashesExistentes.contains(hash) || !hashesDoLote.add(hash)) {
+            return "Já existe uma alternativa com esse texto: " + alternativa.afirmativa();
+        }
+        return null;
+    }
+
+    private static final class Totais {
+        private int lotes;
+        private long lidas;
+        private long inseridas;
+        private long rejeitadas;
+    }
+}
@@ -0,0 +1,154 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.importacao.service;
+
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.DTOs.AlternativasDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lê o corpo da importação um registro por vez, sem guardar o arquivo em memória.
+ * Um registro que não pode ser interpretado não interrompe a leitura: volta como
+ * {@link Registro} com o motivo do erro, para ser relatado como rejeição.
+ *
+ * <p>O CSV precisa de cabeçalho {@code topico,afirmativa,correta,justificativa}
+ * e aceita campos entre aspas (com {@code ""} como aspas escapadas e quebras de linha).</p>
+ */
+class LeitorImportacao {
+
+    private static final List<String> CABECALHO_CSV = List.of("topico", "afirmativa", "correta", "justificativa");
+    // Aspas sem fechamento não podem fazer o resto do arquivo virar um único campo em memória.
+    private static final int TAMANHO_MAXIMO_REGISTRO = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final FormatoImportacao formato;
+    private final ObjectMapper objectMapper;
+    private long linhaAtual;
+
+    LeitorImportacao(BufferedReader reader, FormatoImportacao formato, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader;
+        this.formato = formato;
+        this.objectMapper = objectMapper;
+        if (formato == FormatoImportacao.CSV) {
+            validarCabecalho();
+        }
+    }
+
+    /**
+     * Próximo registro, ou {@code null} no fim do corpo. Linhas em branco são ignoradas.
+     */
+    Registro proximo() throws IOException {
+        String linha;
+        do {
+            linha = reader.readLine();
+            if (linha == null) {
+                return null;
+            }
+            linhaAtual++;
+        } while (linha.isBlank());
+
+        long inicio = linhaAtual;
+        return formato == FormatoImportacao.NDJSON ? lerJson(inicio, linha) : lerCsv(inicio, linha);
+    }
+
+    private Registro lerJson(long linha, String conteudo) {
+        try {
+            return Registro.valido(linha, objectMapper.readValue(conteudo, AlternativasDTO.class));
+        } catch (JsonProcessingException e) {
+            return Registro.invalido(linha, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private Registro lerCsv(long linha, String conteudo) throws IOException {
+        List<String> campos = separarCampos(conteudo);
+        if (campos == null) {
+            return Registro.invalido(linha, "Campo entre aspas não foi fechado.");
+        }
+        if (campos.size() != CABECALHO_CSV.size()) {
+            return Registro.invalido(linha, "Esperados " + CABECALHO_CSV.size() + " campos, encontrados " + campos.size() + ".");
+        }
+
+        Integer topico;
+        try {
+            topico = Integer.valueOf(campos.get(0).trim());
+        } catch (NumberFormatException e) {
+            return Registro.invalido(linha, "Tópico inválido: " + campos.get(0));
+        }
+        String correta = campos.get(2).trim();
+        if (!correta.equalsIgnoreCase("true") && !correta.equalsIgnoreCase("false")) {
+            return Registro.invalido(linha, "Valor de 'correta' deve ser true ou false: " + correta);
+        }
+        String justificativa = campos.get(3).isEmpty() ? null : campos.get(3);
+
+        return Registro.valido(linha, new AlternativasDTO(topico, campos.get(1), Boolean.parseBoolean(correta), justificativa));
+    }
+
+    /**
+     * Separa um registro CSV, continuando nas próximas linhas enquanto houver aspas abertas.
+     * Devolve {@code null} se o corpo acabar com aspas abertas ou o registro passar do tamanho máximo.
+     */
+    private List<String> separarCampos(String primeiraLinha) throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        String linha = primeiraLinha;
+
+        while (true) {
+            for (int i = 0; i < linha.length(); i++) {
+                char c = linha.charAt(i);
+                if (entreAspas) {
+                    if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        entreAspas = false;
+                    } else {
+                        campo.append(c);
+                    }
+                } else if (c == '"') {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append(c);
+                }
+            }
+            if (!entreAspas) {
+                campos.add(campo.toString());
+                return campos;
+            }
+            linha = reader.readLine();
+            if (linha == null || campo.length() > TAMANHO_MAXIMO_REGISTRO) {
+                return null;
+            }
+            linhaAtual++;
+            campo.append('\n');
+        }
+    }
+
+    private void validarCabecalho() throws IOException {
+        String cabecalho = reader.readLine();
+        linhaAtual++;
+        if (cabecalho != null && cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        List<String> campos = cabecalho == null ? null : separarCampos(cabecalho);
+        if (campos == null || !campos.stream().map(c -> c.trim().toLowerCase()).toList().equals(CABECALHO_CSV)) {
+            throw new IllegalArgumentException("O CSV deve começar com o cabeçalho: " + String.join(",", CABECALHO_CSV));
+        }
+    }
+
+    record Registro(long linha, AlternativasDTO alternativa, String erro) {
+        static Registro valido(long linha, AlternativasDTO alternativa) {
+            return new Registro(linha, alternativa, null);
+        }
+
+        static Registro invalido(long linha, String erro) {
+            return new Registro(linha, null, erro);
+        }
+    }
+}
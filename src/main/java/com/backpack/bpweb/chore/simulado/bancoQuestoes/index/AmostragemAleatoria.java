@@ -0,0 +1,62 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.index;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Sorteio de posições distintas sobre um ordinal denso [0, n).
+ * Substitui o {@code ORDER BY RANDOM()}: o custo depende só de quantas posições
+ * são sorteadas, nunca do tamanho do banco.
+ */
+public final class AmostragemAleatoria {
+
+    // Até esse tamanho a busca linear no próprio array é mais barata que um HashSet.
+    private static final int LIMITE_BUSCA_LINEAR = 64;
+
+    private AmostragemAleatoria() {
+    }
+
+    /**
+     * Sorteia {@code k} posições distintas de [0, n) pelo algoritmo de Floyd.
+     * Todo subconjunto de tamanho {@code k} tem a mesma probabilidade, e a ordem
+     * devolvida também é uniforme (as posições são embaralhadas no final).
+     */
+    public static int[] sortearDistintos(int n, int k, Random random) {
+        if (k < 0 || k > n) {
+            throw new IllegalArgumentException("Não é possível sortear " + k + " posições distintas de " + n);
+        }
+
+        int[] sorteados = new int[k];
+        Set<Integer> vistos = k > LIMITE_BUSCA_LINEAR ? new HashSet<>(k * 2) : null;
+
+        int preenchidos = 0;
+        for (int j = n - k; j < n; j++) {
+            int candidato = random.nextInt(j + 1);
+            boolean repetido = vistos != null ? vistos.contains(candidato) : contem(sorteados, preenchidos, candidato);
+            int escolhido = repetido ? j : candidato;
+            sorteados[preenchidos++] = escolhido;
+            if (vistos != null) {
+                vistos.add(escolhido);
+            }
+        }
+
+        // Floyd garante um subconjunto uniforme, mas não uma ordem uniforme.
+        for (int i = k - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = sorteados[i];
+            sorteados[i] = sorteados[j];
+            sorteados[j] = tmp;
+        }
+        return sorteados;
+    }
+
+    private static boolean contem(int[] valores, int tamanho, int valor) {
+        for (int i = 0; i < tamanho; i++) {
+            if (valores[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
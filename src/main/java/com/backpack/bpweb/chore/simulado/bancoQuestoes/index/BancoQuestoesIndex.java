@@ -0,0 +1,220 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.index;
+
+import com.backpack.bpweb.chore.materias.repository.MateriaRepository;
+import com.backpack.bpweb.chore.simulado.DTOs.AlternativaSimplesDTO;
+import com.backpack.bpweb.chore.simulado.DTOs.QuestaoSimuladoDTO;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.Alternativas;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository.AlternativasRepository;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.gabarito.GabaritoCache;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.entity.TopicosQuestoes;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.repository.TopicosQuestoesRepository;
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.cache.CachesProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Índice em memória do banco de questões, separado por matéria.
+ * Guarda apenas ids e textos em arrays, permitindo montar um simulado sem consultar o banco.
+ * O índice de uma matéria é carregado na primeira leitura e descartado quando
+ * {@link com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.service.AlternativasService}
+ * ou {@link com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.service.TopicosQuestoesService}
+ * alteram algo daquela matéria.
+ *
+ * <p>Os índices ficam num cache Caffeine com os limites de {@link CacheConfiguration#BANCO_QUESTOES}:
+ * quantidade de matérias e TTL, para que alterações feitas em outra instância apareçam aqui com atraso
+ * limitado. Um id de matéria que não existe não entra no cache: a carga falha com {@link EntityNotFoundException}.</p>
+ */
+@Component
+public class BancoQuestoesIndex {
+
+    public static final int ALTERNATIVAS_INCORRETAS_POR_QUESTAO = 4;
+
+    private final TopicosQuestoesRepository topicosQuestoesRepository;
+    private final AlternativasRepository alternativasRepository;
+    private final MateriaRepository materiaRepository;
+    private final GabaritoCache gabaritoCache;
+    private final AsyncCache<Integer, SnapshotMateria> snapshots;
+    private final List<Consumer<Integer>> ouvintesInvalidacao = new CopyOnWriteArrayList<>();
+
+    public BancoQuestoesIndex(TopicosQuestoesRepository topicosQuestoesRepository, AlternativasRepository alternativasRepository,
+                              MateriaRepository materiaRepository, GabaritoCache gabaritoCache, CachesProperties caches) {
+        this.topicosQuestoesRepository = topicosQuestoesRepository;
+        this.alternativasRepository = alternativasRepository;
+        this.materiaRepository = materiaRepository;
+        this.gabaritoCache = gabaritoCache;
+        CachesProperties.Limites limites = Objects.requireNonNull(caches.limites().get(CacheConfiguration.BANCO_QUESTOES),
+                "Limites do cache " + CacheConfiguration.BANCO_QUESTOES + " não configurados.");
+        this.snapshots = CacheConfiguration.construtor(limites).buildAsync();
+    }
+
+    /**
+     * @throws EntityNotFoundException se a matéria não existir
+     */
+    public SnapshotMateria snapshotDaMateria(Integer materiaId) {
+        // O cache guarda só o futuro, criado sob o lock do mapa; as consultas rodam fora dele, nesta thread,
+        // e as requisições concorrentes da mesma matéria esperam o mesmo futuro. Uma invalidação durante a
+        // carga tira o futuro do cache, então o resultado não fica guardado.
+        CompletableFuture<SnapshotMateria> nova = new CompletableFuture<>();
+        CompletableFuture<SnapshotMateria> atual = snapshots.get(materiaId, (id, executor) -> nova);
+        if (atual == nova) {
+            try {
+                nova.complete(carregar(materiaId));
+            } catch (RuntimeException e) {
+                // Futuro com falha sai do cache: ids inexistentes e erros de banco não ficam guardados.
+                nova.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return atual.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+
+    /**
+     * Descarta o índice da matéria depois do commit da transação que alterou o banco de questões.
+     */
+    public void invalidar(Integer materiaId) {
+        if (materiaId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            snapshots.synchronous().invalidate(materiaId);
+            ouvintesInvalidacao.forEach(ouvinte -> ouvinte.accept(materiaId));
+        });
+    }
+
+    /**
+     * Registra quem precisa saber que o banco de questões de uma matéria mudou.
+     * O ouvinte é chamado depois que o índice antigo já foi descartado.
+     */
+    public void registrarOuvinteInvalidacao(Consumer<Integer> ouvinte) {
+        ouvintesInvalidacao.add(ouvinte);
+    }
+
+    private SnapshotMateria carregar(Integer materiaId) {
+        long geracaoGabarito = gabaritoCache.geracao();
+        List<TopicosQuestoes> topicos = topicosQuestoesRepository.findByMateria_Id(materiaId);
+        if (topicos.isEmpty() && !materiaRepository.existsById(materiaId)) {
+            throw new EntityNotFoundException("Matéria não encontrada com o id: " + materiaId);
+        }
+        List<Alternativas> alternativas = alternativasRepository.findAllByMateriaId(materiaId);
+
+        Map<Integer, Alternativas> corretas = new HashMap<>();
+        Map<Integer, List<Alternativas>> incorretas = new HashMap<>();
+        for (Alternativas alternativa : alternativas) {
+            int topicoId = alternativa.getTopicosQuestoes().getId();
+            if (alternativa.isCorreta()) {
+                if (corretas.putIfAbsent(topicoId, alternativa) == null) {
+                    // As corretas já estão em mãos: a correção desta matéria não precisa ir ao banco.
+                    gabaritoCache.aquecer(geracaoGabarito, topicoId, alternativa);
+                }
+            } else {
+                incorretas.computeIfAbsent(topicoId, id -> new ArrayList<>()).add(alternativa);
+            }
+        }
+
+        // Só entram no índice os tópicos que conseguem virar uma questão completa.
+        List<TopicosQuestoes> elegiveis = new ArrayList<>();
+        for (TopicosQuestoes topico : topicos) {
+            if (corretas.containsKey(topico.getId())
+                    && incorretas.getOrDefault(topico.getId(), List.of()).size() >= ALTERNATIVAS_INCORRETAS_POR_QUESTAO) {
+                elegiveis.add(topico);
+            }
+        }
+
+        int total = elegiveis.size();
+        int[] topicoIds = new int[total];
+        String[] titulos = new String[total];
+        int[] corretaIds = new int[total];
+        String[] corretaTextos = new String[total];
+        int[][] incorretaIds = new int[total][];
+        String[][] incorretaTextos = new String[total][];
+
+        for (int i = 0; i < total; i++) {
+            TopicosQuestoes topico = elegiveis.get(i);
+            Alternativas correta = corretas.get(topico.getId());
+            List<Alternativas> erradas = incorretas.get(topico.getId());
+
+            topicoIds[i] = topico.getId();
+            titulos[i] = topico.getTitulo();
+            corretaIds[i] = correta.getId();
+            corretaTextos[i] = correta.getTextoAfirmativa();
+            incorretaIds[i] = new int[erradas.size()];
+            incorretaTextos[i] = new String[erradas.size()];
+            for (int j = 0; j < erradas.size(); j++) {
+                incorretaIds[i][j] = erradas.get(j).getId();
+                incorretaTextos[i][j] = erradas.get(j).getTextoAfirmativa();
+            }
+        }
+
+        return new SnapshotMateria(topicos.size(), topicoIds, titulos, corretaIds, corretaTextos, incorretaIds, incorretaTextos);
+    }
+
+    /**
+     * Fotografia imutável do banco de questões de uma matéria.
+     * Os arrays são paralelos: a posição {@code i} descreve o mesmo tópico em todos eles.
+     */
+    public static final class SnapshotMateria {
+        private final int totalTopicos;
+        private final int[] topicoIds;
+        private final String[] titulos;
+        private final int[] corretaIds;
+        private final String[] corretaTextos;
+        private final int[][] incorretaIds;
+        private final String[][] incorretaTextos;
+
+        SnapshotMateria(int totalTopicos, int[] topicoIds, String[] titulos, int[] corretaIds, String[] corretaTextos,
+                        int[][] incorretaIds, String[][] incorretaTextos) {
+            this.totalTopicos = totalTopicos;
+            this.topicoIds = topicoIds;
+            this.titulos = titulos;
+            this.corretaIds = corretaIds;
+            this.corretaTextos = corretaTextos;
+            this.incorretaIds = incorretaIds;
+            this.incorretaTextos = incorretaTextos;
+        }
+
+        /**
+         * Sorteia {@code quantidade} tópicos distintos e monta as questões com a alternativa correta
+         * e {@link BancoQuestoesIndex#ALTERNATIVAS_INCORRETAS_POR_QUESTAO} incorretas, embaralhadas.
+         */
+        public List<QuestaoSimuladoDTO> sortearQuestoes(int quantidade) {
+            if (totalTopicos < quantidade) {
+                throw new IllegalStateException("Não há tópicos suficientes para gerar um simulado de " + quantidade + " questões.");
+            }
+            if (topicoIds.length < quantidade) {
+                throw new IllegalStateException("Não foi possível montar " + quantidade + " questões válidas.");
+            }
+
+            Random random = ThreadLocalRandom.current();
+            int[] sorteados = AmostragemAleatoria.sortearDistintos(topicoIds.length, quantidade, random);
+
+            List<QuestaoSimuladoDTO> questoes = new ArrayList<>(quantidade);
+            for (int posicao : sorteados) {
+                int[] incorretasSorteadas = AmostragemAleatoria.sortearDistintos(incorretaIds[posicao].length, ALTERNATIVAS_INCORRETAS_POR_QUESTAO, random);
+
+                List<AlternativaSimplesDTO> alternativas = new ArrayList<>(ALTERNATIVAS_INCORRETAS_POR_QUESTAO + 1);
+                for (int incorreta : incorretasSorteadas) {
+                    alternativas.add(new AlternativaSimplesDTO(incorretaIds[posicao][incorreta], incorretaTextos[posicao][incorreta]));
+                }
+                alternativas.add(new AlternativaSimplesDTO(corretaIds[posicao], corretaTextos[posicao]));
+                Collections.shuffle(alternativas, random);
+
+                questoes.add(new QuestaoSimuladoDTO(topicoIds[posicao], titulos[posicao], alternativas));
+            }
+            return questoes;
+        }
+    }
+}
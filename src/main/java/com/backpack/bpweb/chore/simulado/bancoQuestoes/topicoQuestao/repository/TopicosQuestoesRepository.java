@@ -1,19 +1,33 @@
 package com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.repository;
 
+import com.backpack.bpweb.chore.busca.index.TituloCatalogo;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.entity.TopicosQuestoes;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TopicosQuestoesRepository extends JpaRepository<TopicosQuestoes, Integer> {
+
+    @Query("SELECT t.id AS id, t.titulo AS titulo FROM TopicosQuestoes t")
+    List<TituloCatalogo> findTitulos();
+
     Optional<TopicosQuestoes> findByTitulo(String titulo);
 
-    @Query(value = "SELECT * FROM topicos_questoes WHERE materia_id = :materiaId ORDER BY RANDOM()",
-            nativeQuery = true)
-    List<TopicosQuestoes> findRandomByMateriaId(@Param("materiaId") Integer materiaId, Pageable pageable);
+    List<TopicosQuestoes> findByMateria_Id(Integer materiaId);
+
+    /**
+     * Devolve id e matéria dos tópicos que existem, sem carregar as entidades.
+     */
+    @Query("SELECT t.id AS id, t.materia.id AS materiaId FROM TopicosQuestoes t WHERE t.id IN :ids")
+    List<TopicoMateria> findMateriasDosTopicos(@Param("ids") Collection<Integer> ids);
+
+    interface TopicoMateria {
+        Integer getId();
 
+        Integer getMateriaId();
+    }
 }
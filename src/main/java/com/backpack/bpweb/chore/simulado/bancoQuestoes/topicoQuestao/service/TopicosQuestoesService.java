@@ -1,5 +1,10 @@
 package com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.service;
 
+import com.backpack.bpweb.chore.busca.index.SugestoesIndex;
+import com.backpack.bpweb.chore.busca.index.TipoSugestao;
+import com.backpack.bpweb.chore.catalogo.CatalogoVersao;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.gabarito.GabaritoCache;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.index.BancoQuestoesIndex;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.DTOs.TopicoQuestaoDTO;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.DTOs.TopicoQuestaoResponseDTO;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.entity.TopicosQuestoes;
@@ -18,10 +23,19 @@ public class TopicosQuestoesService {
 
     private final TopicosQuestoesRepository topicosQuestoesRepository;
     private final MateriaRepository materiaRepository;
+    private final BancoQuestoesIndex bancoQuestoesIndex;
+    private final GabaritoCache gabaritoCache;
+    private final SugestoesIndex sugestoesIndex;
+    private final CatalogoVersao catalogoVersao;
     // merma coisa do autowired
-    public TopicosQuestoesService(TopicosQuestoesRepository topicosQuestoesRepository, MateriaRepository materiaRepository) {
+    public TopicosQuestoesService(TopicosQuestoesRepository topicosQuestoesRepository, MateriaRepository materiaRepository, BancoQuestoesIndex bancoQuestoesIndex,
+                                  GabaritoCache gabaritoCache, SugestoesIndex sugestoesIndex, CatalogoVersao catalogoVersao) {
         this.topicosQuestoesRepository = topicosQuestoesRepository;
         this.materiaRepository = materiaRepository;
+        this.bancoQuestoesIndex = bancoQuestoesIndex;
+        this.gabaritoCache = gabaritoCache;
+        this.sugestoesIndex = sugestoesIndex;
+        this.catalogoVersao = catalogoVersao;
     }
 
     // publico
@@ -50,6 +64,9 @@ public class TopicosQuestoesService {
         TopicosQuestoes topico = new TopicosQuestoes();
         mapDtoToEntity(data, topico);
         topicosQuestoesRepository.save(topico);
+        bancoQuestoesIndex.invalidar(topico.getMateria().getId());
+        sugestoesIndex.atualizar(TipoSugestao.TOPICO, topico.getId(), topico.getTitulo());
+        catalogoVersao.incrementar();
         return new TopicoQuestaoResponseDTO(topico);
     }
 
@@ -57,18 +74,27 @@ public class TopicosQuestoesService {
     public TopicoQuestaoResponseDTO updateTopicoQuestao(Integer id, TopicoQuestaoDTO data) {
         TopicosQuestoes topico = topicosQuestoesRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Topico não encontrado com o id: " + id));
+        Integer materiaAnterior = topico.getMateria() != null ? topico.getMateria().getId() : null;
 
         mapDtoToEntity(data, topico);
         topicosQuestoesRepository.save(topico);
+        bancoQuestoesIndex.invalidar(materiaAnterior);
+        bancoQuestoesIndex.invalidar(topico.getMateria().getId());
+        sugestoesIndex.atualizar(TipoSugestao.TOPICO, topico.getId(), topico.getTitulo());
+        catalogoVersao.incrementar();
         return new TopicoQuestaoResponseDTO(topico);
     }
 
     @Transactional
     public void deleteTopicoQuestao(Integer id) {
-        if (!topicosQuestoesRepository.existsById(id)) {
-            throw new EntityNotFoundException("Topico não encontrado com o id: " + id);
-        }
-        topicosQuestoesRepository.deleteById(id);
+        TopicosQuestoes topico = topicosQuestoesRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Topico não encontrado com o id: " + id));
+        topicosQuestoesRepository.delete(topico);
+        bancoQuestoesIndex.invalidar(topico.getMateria() != null ? topico.getMateria().getId() : null);
+        // As alternativas saem em cascata; o gabarito do tópico não pode sobrar no cache.
+        gabaritoCache.invalidar(List.of(id));
+        sugestoesIndex.remover(TipoSugestao.TOPICO, id);
+        catalogoVersao.incrementar();
     }
 
     private void mapDtoToEntity(TopicoQuestaoDTO dto, TopicosQuestoes entity) {
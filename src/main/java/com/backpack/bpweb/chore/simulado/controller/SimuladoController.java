@@ -36,14 +36,14 @@ public class SimuladoController {
     }
 
     @PostMapping("/submeter")
-    public ResponseEntity<ResultadoSimuladoDTO> submeterSimulado(@RequestBody SubmissaoSimuladoDTO submissao) throws AuthException {
+    public ResponseEntity<?> submeterSimulado(@RequestBody SubmissaoSimuladoDTO submissao) throws AuthException {
         try {
             ResultadoSimuladoDTO resultado = simuladoService.corrigirSimulado(submissao);
             return ResponseEntity.ok(resultado);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (IllegalStateException e) {
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 }
@@ -27,4 +27,7 @@ public class TentativasSimulados {
     private OffsetDateTime dataInicio;
     private OffsetDateTime dataFim;
     private BigDecimal pontuacaoFinal;
+    // Só preenchido quando a tentativa nasce de um descritor assinado (ver DescritorSimulado).
+    @Column(name = "descritor_hash", length = 64)
+    private String descritorHash;
 }
@@ -3,5 +3,5 @@ package com.backpack.bpweb.chore.simulado.repositorys;
 import com.backpack.bpweb.chore.simulado.entitys.RespostasUsuario;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface RespostasUsuarioRepository extends JpaRepository<RespostasUsuario, Integer> {
+public interface RespostasUsuarioRepository extends JpaRepository<RespostasUsuario, Integer>, RespostasUsuarioRepositoryCustom {
 }
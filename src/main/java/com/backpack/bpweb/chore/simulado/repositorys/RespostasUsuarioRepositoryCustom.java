@@ -0,0 +1,14 @@
+package com.backpack.bpweb.chore.simulado.repositorys;
+
+import com.backpack.bpweb.chore.simulado.entitys.RespostasUsuario;
+
+import java.util.List;
+
+public interface RespostasUsuarioRepositoryCustom {
+
+    /**
+     * Insere todas as respostas em um único lote JDBC, sem passar pelo ciclo de vida do JPA.
+     * Os ids gerados não são devolvidos para as entidades.
+     */
+    void inserirEmLote(List<RespostasUsuario> respostas);
+}
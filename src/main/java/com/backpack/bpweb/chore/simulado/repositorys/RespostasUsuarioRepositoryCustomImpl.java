@@ -0,0 +1,31 @@
+package com.backpack.bpweb.chore.simulado.repositorys;
+
+import com.backpack.bpweb.chore.simulado.entitys.RespostasUsuario;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class RespostasUsuarioRepositoryCustomImpl implements RespostasUsuarioRepositoryCustom {
+
+    private static final String INSERT_RESPOSTA =
+            "INSERT INTO respostas_usuario (tentativa_id, topico_id, alternativa_escolhida_id, esta_correta) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RespostasUsuarioRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void inserirEmLote(List<RespostasUsuario> respostas) {
+        if (respostas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RESPOSTA, respostas, respostas.size(), (ps, resposta) -> {
+            ps.setInt(1, resposta.getTentativa().getId());
+            ps.setInt(2, resposta.getTopico().getId());
+            ps.setInt(3, resposta.getAlternativaEscolhida().getId());
+            ps.setBoolean(4, resposta.isCorreta());
+        });
+    }
+}
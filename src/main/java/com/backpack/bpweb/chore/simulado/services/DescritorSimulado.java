@@ -0,0 +1,154 @@
+package com.backpack.bpweb.chore.simulado.services;
+
+import com.backpack.bpweb.chore.simulado.DTOs.AlternativaSimplesDTO;
+import com.backpack.bpweb.chore.simulado.DTOs.QuestaoSimuladoDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Descritor assinado de um simulado gerado. Guarda tudo o que a correção precisa saber
+ * sobre a prova (usuário, matéria, semente, tópicos e alternativas na ordem exibida),
+ * de modo que a geração não grava nada no banco: a tentativa só é criada na submissão.
+ * A semente é sorteada por prova e torna cada descritor único, mesmo para duas provas iguais.
+ *
+ * <p>Formato binário, em Base64 URL sem padding:
+ * {@code versão | usuarioId | materiaId | emitidoEm | semente | nQuestões | (topicoId, nAlternativas, alternativaIds...)* | HMAC-SHA256}.
+ * A chave é derivada do segredo do JWT, então trocar o segredo invalida os descritores em aberto.</p>
+ */
+@Component
+public class DescritorSimulado {
+
+    private static final byte VERSAO = 1;
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int TAMANHO_ASSINATURA = 32;
+
+    private final SecretKeySpec chave;
+    private final Duration validade;
+
+    public DescritorSimulado(@Value("${api.security.token.secret}") String segredo,
+                             @Value("${simulado.descritor.validade-minutos:180}") long validadeMinutos) {
+        // Chave própria para o descritor: o mesmo segredo nunca assina dois formatos diferentes.
+        this.chave = new SecretKeySpec(hmac(new SecretKeySpec(segredo.getBytes(StandardCharsets.UTF_8), ALGORITMO),
+                "bp-web/simulado-descritor".getBytes(StandardCharsets.UTF_8)), ALGORITMO);
+        this.validade = Duration.ofMinutes(validadeMinutos);
+    }
+
+    public String emitir(int usuarioId, int materiaId, long semente, List<QuestaoSimuladoDTO> questoes) {
+        int tamanho = 1 + 4 + 4 + 8 + 8 + 1;
+        for (QuestaoSimuladoDTO questao : questoes) {
+            tamanho += 4 + 1 + 4 * questao.alternativas().size();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho + TAMANHO_ASSINATURA);
+        buffer.put(VERSAO).putInt(usuarioId).putInt(materiaId).putLong(Instant.now().getEpochSecond()).putLong(semente);
+        buffer.put((byte) questoes.size());
+        for (QuestaoSimuladoDTO questao : questoes) {
+            buffer.putInt(questao.topicoId()).put((byte) questao.alternativas().size());
+            for (AlternativaSimplesDTO alternativa : questao.alternativas()) {
+                buffer.putInt(alternativa.id());
+            }
+        }
+        buffer.put(hmac(chave, Arrays.copyOf(buffer.array(), tamanho)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Confere assinatura, dono e validade do descritor.
+     *
+     * @throws IllegalStateException se o descritor for inválido, expirado ou de outro usuário
+     */
+    public Conteudo verificar(String descritor, int usuarioId) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(descritor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Descritor de simulado inválido.");
+        }
+        if (bytes.length <= TAMANHO_ASSINATURA) {
+            throw new IllegalStateException("Descritor de simulado inválido.");
+        }
+        int tamanho = bytes.length - TAMANHO_ASSINATURA;
+        byte[] esperada = hmac(chave, Arrays.copyOf(bytes, tamanho));
+        if (!MessageDigest.isEqual(esperada, Arrays.copyOfRange(bytes, tamanho, bytes.length))) {
+            throw new IllegalStateException("Descritor de simulado inválido.");
+        }
+
+        Conteudo conteudo;
+        try {
+            conteudo = ler(ByteBuffer.wrap(bytes, 0, tamanho), sha256(bytes));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Descritor de simulado inválido.");
+        }
+        if (conteudo.usuarioId() != usuarioId) {
+            throw new IllegalStateException("Este simulado não pertence ao usuário.");
+        }
+        if (conteudo.emitidoEm().plus(validade).isBefore(Instant.now())) {
+            throw new IllegalStateException("Este simulado expirou. Gere um novo simulado.");
+        }
+        return conteudo;
+    }
+
+    // Calculado sobre os bytes decodificados, não sobre o texto: duas grafias Base64 da mesma prova dão o mesmo hash.
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Conteudo ler(ByteBuffer buffer, String hash) {
+        if (buffer.get() != VERSAO) {
+            throw new IllegalStateException("Versão de descritor de simulado não suportada.");
+        }
+        int usuarioId = buffer.getInt();
+        int materiaId = buffer.getInt();
+        Instant emitidoEm = Instant.ofEpochSecond(buffer.getLong());
+        long semente = buffer.getLong();
+
+        int totalQuestoes = Byte.toUnsignedInt(buffer.get());
+        Map<Integer, Set<Integer>> alternativasPorTopico = new LinkedHashMap<>();
+        for (int i = 0; i < totalQuestoes; i++) {
+            int topicoId = buffer.getInt();
+            int totalAlternativas = Byte.toUnsignedInt(buffer.get());
+            Set<Integer> alternativas = new HashSet<>();
+            for (int j = 0; j < totalAlternativas; j++) {
+                alternativas.add(buffer.getInt());
+            }
+            alternativasPorTopico.put(topicoId, alternativas);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalStateException("Descritor de simulado inválido.");
+        }
+        return new Conteudo(usuarioId, materiaId, emitidoEm, semente, alternativasPorTopico, hash);
+    }
+
+    private static byte[] hmac(SecretKeySpec chave, byte[] dados) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(dados);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Conteúdo verificado de um descritor. {@code alternativasPorTopico} preserva a ordem das questões;
+     * {@code hash} é gravado na tentativa para que a mesma prova não seja submetida duas vezes.
+     */
+    public record Conteudo(int usuarioId, int materiaId, Instant emitidoEm, long semente,
+                           Map<Integer, Set<Integer>> alternativasPorTopico, String hash) {
+    }
+}
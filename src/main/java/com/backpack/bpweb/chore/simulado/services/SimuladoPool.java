@@ -0,0 +1,140 @@
+package com.backpack.bpweb.chore.simulado.services;
+
+import com.backpack.bpweb.chore.simulado.DTOs.QuestaoSimuladoDTO;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.index.BancoQuestoesIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reserva limitada de simulados já sorteados, separada por matéria.
+ * Um agendador repõe as filas que ficam abaixo do nível mínimo, de modo que
+ * a requisição de "Gerar simulado" normalmente só retira um conjunto pronto.
+ * As filas de uma matéria são esvaziadas quando o banco de questões dela muda.
+ * Só existe fila para matéria que existe: o id vem do cliente, então é validado
+ * pelo índice antes de entrar no mapa, e a fila de uma matéria excluída é removida
+ * na próxima reposição.
+ */
+@Component
+public class SimuladoPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SimuladoPool.class);
+
+    private final BancoQuestoesIndex bancoQuestoesIndex;
+    private final boolean habilitado;
+    private final int profundidade;
+    private final int nivelMinimo;
+    private final Map<Integer, FilaMateria> filas = new ConcurrentHashMap<>();
+    private final Counter acertos;
+    private final Counter faltas;
+
+    public SimuladoPool(BancoQuestoesIndex bancoQuestoesIndex,
+                        MeterRegistry meterRegistry,
+                        @Value("${simulado.pool.habilitado:true}") boolean habilitado,
+                        @Value("${simulado.pool.profundidade:20}") int profundidade,
+                        @Value("${simulado.pool.nivel-minimo:5}") int nivelMinimo) {
+        this.bancoQuestoesIndex = bancoQuestoesIndex;
+        this.habilitado = habilitado;
+        this.profundidade = profundidade;
+        this.nivelMinimo = Math.min(nivelMinimo, profundidade);
+        this.acertos = Counter.builder("simulado.pool.requisicoes").tag("resultado", "hit").register(meterRegistry);
+        this.faltas = Counter.builder("simulado.pool.requisicoes").tag("resultado", "miss").register(meterRegistry);
+        Gauge.builder("simulado.pool.tamanho", filas, f -> f.values().stream().mapToInt(fila -> fila.simulados.size()).sum())
+                .register(meterRegistry);
+
+        bancoQuestoesIndex.registrarOuvinteInvalidacao(this::descartar);
+    }
+
+    /**
+     * Retira um conjunto de questões pronto da matéria. Se a fila estiver vazia,
+     * sorteia na hora a partir do índice do banco de questões.
+     *
+     * @throws EntityNotFoundException se a matéria não existir
+     */
+    public List<QuestaoSimuladoDTO> obter(Integer materiaId, int quantidade) {
+        if (!habilitado) {
+            return bancoQuestoesIndex.snapshotDaMateria(materiaId).sortearQuestoes(quantidade);
+        }
+
+        // Carregar o índice valida a matéria; um id inexistente falha aqui, antes de criar a fila.
+        BancoQuestoesIndex.SnapshotMateria snapshot = bancoQuestoesIndex.snapshotDaMateria(materiaId);
+        FilaMateria fila = filas.computeIfAbsent(materiaId, id -> new FilaMateria(profundidade));
+        long geracaoAtual = fila.geracao.get();
+
+        SimuladoPronto pronto;
+        while ((pronto = fila.simulados.poll()) != null) {
+            if (pronto.geracao() == geracaoAtual && pronto.questoes().size() == quantidade) {
+                acertos.increment();
+                return pronto.questoes();
+            }
+        }
+
+        faltas.increment();
+        return snapshot.sortearQuestoes(quantidade);
+    }
+
+    @Scheduled(fixedDelayString = "${simulado.pool.intervalo-reposicao-ms:500}")
+    public void repor() {
+        if (!habilitado) {
+            return;
+        }
+        filas.forEach((materiaId, fila) -> {
+            if (fila.simulados.size() >= nivelMinimo) {
+                return;
+            }
+            try {
+                // A geração é lida antes do snapshot: se o banco mudar no meio da reposição,
+                // os conjuntos montados aqui ficam com a geração antiga e são descartados.
+                long geracao = fila.geracao.get();
+                BancoQuestoesIndex.SnapshotMateria snapshot = bancoQuestoesIndex.snapshotDaMateria(materiaId);
+                while (fila.simulados.remainingCapacity() > 0) {
+                    List<QuestaoSimuladoDTO> questoes = snapshot.sortearQuestoes(SimuladoService.NUMERO_DE_QUESTOES);
+                    if (!fila.simulados.offer(new SimuladoPronto(geracao, questoes))) {
+                        break;
+                    }
+                }
+            } catch (EntityNotFoundException e) {
+                // A matéria foi excluída depois que a fila foi criada.
+                filas.remove(materiaId);
+            } catch (IllegalStateException e) {
+                // Matéria sem questões suficientes: a requisição devolve o erro normalmente.
+                log.debug("Não foi possível repor simulados da matéria {}: {}", materiaId, e.getMessage());
+            } catch (RuntimeException e) {
+                log.warn("Falha ao repor simulados da matéria {}", materiaId, e);
+            }
+        });
+    }
+
+    private void descartar(Integer materiaId) {
+        FilaMateria fila = filas.get(materiaId);
+        if (fila != null) {
+            fila.geracao.incrementAndGet();
+            fila.simulados.clear();
+        }
+    }
+
+    private record SimuladoPronto(long geracao, List<QuestaoSimuladoDTO> questoes) {
+    }
+
+    private static final class FilaMateria {
+        private final BlockingQueue<SimuladoPronto> simulados;
+        private final AtomicLong geracao = new AtomicLong();
+
+        private FilaMateria(int profundidade) {
+            this.simulados = new ArrayBlockingQueue<>(profundidade);
+        }
+    }
+}
@@ -7,91 +7,98 @@ import com.backpack.bpweb.chore.simulado.entitys.TentativasSimulados;
 import com.backpack.bpweb.chore.simulado.repositorys.TentativasSimuladosRepository;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.Alternativas;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.repository.AlternativasRepository;
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.gabarito.GabaritoCache;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.entity.TopicosQuestoes;
 import com.backpack.bpweb.chore.simulado.bancoQuestoes.topicoQuestao.repository.TopicosQuestoesRepository;
 import com.backpack.bpweb.user.entity.Usuarios;
+import com.backpack.bpweb.user.estatistica.service.AtividadeDiariaService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.security.auth.message.AuthException;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
 public class SimuladoService {
 
+    public static final int NUMERO_DE_QUESTOES = 10;
+
     private final TopicosQuestoesRepository topicosQuestoesRepository;
     private final AlternativasRepository alternativasRepository;
     private final TentativasSimuladosRepository tentativasSimuladoRepository;
     private final RespostasUsuarioRepository respostasUsuarioRepository;
-
-    public SimuladoService(TopicosQuestoesRepository topicosQuestoesRepository, AlternativasRepository alternativasRepository, TentativasSimuladosRepository tentativasSimuladoRepository, RespostasUsuarioRepository respostasUsuarioRepository) {
+    private final SimuladoPool simuladoPool;
+    private final GabaritoCache gabaritoCache;
+    private final DescritorSimulado descritorSimulado;
+    private final boolean usarDescritor;
+    private final AtividadeDiariaService atividadeDiariaService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate transactionTemplateLeitura;
+
+    public SimuladoService(TopicosQuestoesRepository topicosQuestoesRepository, AlternativasRepository alternativasRepository, TentativasSimuladosRepository tentativasSimuladoRepository, RespostasUsuarioRepository respostasUsuarioRepository, SimuladoPool simuladoPool, GabaritoCache gabaritoCache,
+                           DescritorSimulado descritorSimulado, @Value("${simulado.descritor.habilitado:false}") boolean usarDescritor,
+                           AtividadeDiariaService atividadeDiariaService, PlatformTransactionManager transactionManager) {
         this.topicosQuestoesRepository = topicosQuestoesRepository;
         this.alternativasRepository = alternativasRepository;
         this.tentativasSimuladoRepository = tentativasSimuladoRepository;
         this.respostasUsuarioRepository = respostasUsuarioRepository;
+        this.simuladoPool = simuladoPool;
+        this.gabaritoCache = gabaritoCache;
+        this.descritorSimulado = descritorSimulado;
+        this.usarDescritor = usarDescritor;
+        this.atividadeDiariaService = atividadeDiariaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplateLeitura = new TransactionTemplate(transactionManager);
+        this.transactionTemplateLeitura.setReadOnly(true);
     }
 
 
 
-    @Transactional
+    /**
+     * Gera um simulado da matéria. No modo descritor nada é gravado, então a transação é só de leitura;
+     * a escrita fica restrita ao caminho que cria a tentativa.
+     */
     public SimuladoResponseDTO gerarSimuladoPorMateria(Integer materiaId) throws AuthException {
         // ETAPA 1: Identificar o usuário e criar a tentativa no banco
         Usuarios usuarioLogado = getUsuarioLogado();
 
-        TentativasSimulados novaTentativa = new TentativasSimulados();
-        novaTentativa.setUsuario(usuarioLogado);
-        novaTentativa.setDataInicio(OffsetDateTime.now());
-        novaTentativa.setPontuacaoFinal(BigDecimal.ZERO); // Pontuação inicial
-
-        // Salva a tentativa para obter um ID. Este ID será enviado ao front-end.
-        TentativasSimulados tentativaSalva = tentativasSimuladoRepository.save(novaTentativa);
-
-        // ETAPA 2: Montar as questões para o simulado (sua lógica original)
-        final int NUMERO_DE_QUESTOES = 10;
-        final int NUMERO_DE_ALTERNATIVAS_INCORRETAS = 4;
-        List<TopicosQuestoes> topicosDisponiveis = topicosQuestoesRepository.findRandomByMateriaId(materiaId, PageRequest.of(0, 50));
-
-        if (topicosDisponiveis.size() < NUMERO_DE_QUESTOES) {
-            throw new IllegalStateException("Não há tópicos suficientes para gerar um simulado de " + NUMERO_DE_QUESTOES + " questões.");
+        if (usarDescritor) {
+            // Nada é gravado: a prova vai assinada para o cliente e a tentativa nasce na submissão.
+            return transactionTemplateLeitura.execute(status -> {
+                List<QuestaoSimuladoDTO> questoes = simuladoPool.obter(materiaId, NUMERO_DE_QUESTOES);
+                long semente = ThreadLocalRandom.current().nextLong();
+                String descritor = descritorSimulado.emitir(usuarioLogado.getId(), materiaId, semente, questoes);
+                return new SimuladoResponseDTO(null, questoes, descritor);
+            });
         }
 
-        List<QuestaoSimuladoDTO> questoesDoSimulado = new ArrayList<>();
-
-        for (TopicosQuestoes topico : topicosDisponiveis) {
-            if (questoesDoSimulado.size() >= NUMERO_DE_QUESTOES) {
-                break;
-            }
-
-            // Presumindo que os métodos no repositório foram ajustados para serem explícitos
-            Optional<Alternativas> corretaOpt = alternativasRepository.findByTopicosQuestoes_IdAndCorretaIsTrue(topico.getId());
-            List<Alternativas> incorretas = alternativasRepository.findIncorrectAlternativesRandomly(topico.getId(), NUMERO_DE_ALTERNATIVAS_INCORRETAS);
-
-            if (corretaOpt.isPresent() && incorretas.size() >= NUMERO_DE_ALTERNATIVAS_INCORRETAS) {
-                List<Alternativas> alternativasDaQuestao = new ArrayList<>(incorretas);
-                alternativasDaQuestao.add(corretaOpt.get());
-                Collections.shuffle(alternativasDaQuestao);
-
-                List<AlternativaSimplesDTO> alternativasDTO = alternativasDaQuestao.stream()
-                        .map(alt -> new AlternativaSimplesDTO(alt.getId(), alt.getTextoAfirmativa()))
-                        .collect(Collectors.toList());
+        return transactionTemplate.execute(status -> {
+            TentativasSimulados novaTentativa = new TentativasSimulados();
+            novaTentativa.setUsuario(usuarioLogado);
+            novaTentativa.setDataInicio(OffsetDateTime.now());
+            novaTentativa.setPontuacaoFinal(BigDecimal.ZERO); // Pontuação inicial
 
-                questoesDoSimulado.add(new QuestaoSimuladoDTO(topico.getId(), topico.getTitulo(), alternativasDTO));
-            }
-        }
+            // Salva a tentativa para obter um ID. Este ID será enviado ao front-end.
+            TentativasSimulados tentativaSalva = tentativasSimuladoRepository.save(novaTentativa);
 
-        if (questoesDoSimulado.size() < NUMERO_DE_QUESTOES) {
-            // Se a exceção for lançada, @Transactional desfaz a criação da tentativa.
-            throw new IllegalStateException("Não foi possível montar " + NUMERO_DE_QUESTOES + " questões válidas.");
-        }
+            // ETAPA 2: Retirar um conjunto de questões pronto do pool (ou sortear na hora, se vazio)
+            List<QuestaoSimuladoDTO> questoesDoSimulado = simuladoPool.obter(materiaId, NUMERO_DE_QUESTOES);
+            // Se a exceção for lançada, a transação desfaz a criação da tentativa.
 
-        // ETAPA 3: Retornar o ID da tentativa junto com as questões
-        return new SimuladoResponseDTO(tentativaSalva.getId(), questoesDoSimulado);
+            // ETAPA 3: Retornar o ID da tentativa junto com as questões
+            return new SimuladoResponseDTO(tentativaSalva.getId(), questoesDoSimulado, null);
+        });
     }
 
     /**
@@ -102,27 +109,38 @@ public class SimuladoService {
     public ResultadoSimuladoDTO corrigirSimulado(SubmissaoSimuladoDTO submissao) throws AuthException {
         Usuarios usuarioLogado = getUsuarioLogado();
 
-        // Busca a tentativa, lançando uma exceção clara se não for encontrada (ou não pertencer ao usuário)
-        TentativasSimulados tentativa = tentativasSimuladoRepository
-                .findByIdAndUsuarioId(submissao.tentativaId(), usuarioLogado.getId())
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Tentativa com ID " + submissao.tentativaId() + " não encontrada ou não pertence ao usuário."
-                ));
+        Map<Integer, Integer> respostas = submissao.respostas();
+        TentativasSimulados tentativa = submissao.descritor() != null
+                ? criarTentativaDoDescritor(submissao.descritor(), respostas, usuarioLogado)
+                : buscarTentativa(submissao.tentativaId(), usuarioLogado);
+
+        // Carrega tópicos e alternativas escolhidas de uma só vez; o gabarito vem do cache e só os tópicos ausentes vão ao banco
+        Map<Integer, TopicosQuestoes> topicos = topicosQuestoesRepository.findAllById(respostas.keySet()).stream()
+                .collect(Collectors.toMap(TopicosQuestoes::getId, topico -> topico));
+        Map<Integer, Alternativas> escolhidas = alternativasRepository.findAllById(new HashSet<>(respostas.values())).stream()
+                .collect(Collectors.toMap(Alternativas::getId, alternativa -> alternativa));
+        Map<Integer, GabaritoCache.Gabarito> gabaritos = gabaritoCache.buscar(respostas.keySet());
 
         List<QuestaoCorrigidaDTO> questoesCorrigidas = new ArrayList<>();
+        List<RespostasUsuario> respostasParaSalvar = new ArrayList<>();
         int acertos = 0;
 
-        for (Map.Entry<Integer, Integer> respostaEntry : submissao.respostas().entrySet()) {
+        for (Map.Entry<Integer, Integer> respostaEntry : respostas.entrySet()) {
             Integer topicoId = respostaEntry.getKey();
             Integer alternativaEscolhidaId = respostaEntry.getValue();
 
-            TopicosQuestoes topico = topicosQuestoesRepository.findById(topicoId)
-                    .orElseThrow(() -> new EntityNotFoundException("Tópico não encontrado: " + topicoId));
-            Alternativas alternativaEscolhida = alternativasRepository.findById(alternativaEscolhidaId)
-                    .orElseThrow(() -> new EntityNotFoundException("Alternativa não encontrada: " + alternativaEscolhidaId));
-
-            Alternativas alternativaCorreta = alternativasRepository.findByTopicosQuestoes_IdAndCorretaIsTrue(topicoId)
-                    .orElseThrow(() -> new IllegalStateException("Tópico sem alternativa correta: " + topicoId));
+            TopicosQuestoes topico = topicos.get(topicoId);
+            if (topico == null) {
+                throw new EntityNotFoundException("Tópico não encontrado: " + topicoId);
+            }
+            Alternativas alternativaEscolhida = escolhidas.get(alternativaEscolhidaId);
+            if (alternativaEscolhida == null) {
+                throw new EntityNotFoundException("Alternativa não encontrada: " + alternativaEscolhidaId);
+            }
+            GabaritoCache.Gabarito gabarito = gabaritos.get(topicoId);
+            if (gabarito == null) {
+                throw new IllegalStateException("Tópico sem alternativa correta: " + topicoId);
+            }
 
             boolean acertou = alternativaEscolhida.isCorreta();
             if (acertou) {
@@ -134,30 +152,72 @@ public class SimuladoService {
             resposta.setTopico(topico);
             resposta.setAlternativaEscolhida(alternativaEscolhida);
             resposta.setCorreta(acertou);
-            respostasUsuarioRepository.save(resposta);
+            respostasParaSalvar.add(resposta);
 
             questoesCorrigidas.add(new QuestaoCorrigidaDTO(
                     topicoId,
                     topico.getTitulo(),
                     alternativaEscolhidaId,
                     alternativaEscolhida.getTextoAfirmativa(),
-                    alternativaCorreta.getId(),
-                    alternativaCorreta.getTextoAfirmativa(),
+                    gabarito.alternativaId(),
+                    gabarito.texto(),
                     acertou,
-                    alternativaCorreta.getJustificativa()
+                    gabarito.justificativa()
             ));
         }
 
+        // Todas as respostas vão para o banco em um único lote JDBC
+        respostasUsuarioRepository.inserirEmLote(respostasParaSalvar);
+
         double pontuacao = (submissao.respostas().isEmpty()) ? 0.0 : ((double) acertos / submissao.respostas().size()) * 100.0;
 
         // Atualiza e finaliza a tentativa
+        boolean primeiraCorrecao = tentativa.getDataFim() == null;
         tentativa.setDataFim(OffsetDateTime.now());
         tentativa.setPontuacaoFinal(BigDecimal.valueOf(pontuacao));
         tentativasSimuladoRepository.save(tentativa);
+        if (primeiraCorrecao) {
+            atividadeDiariaService.registrarSimulado(usuarioLogado.getId(), tentativa.getDataFim());
+        }
 
         return new ResultadoSimuladoDTO(tentativa.getId(), pontuacao, acertos, submissao.respostas().size(), questoesCorrigidas);
     }
 
+    private TentativasSimulados buscarTentativa(Integer tentativaId, Usuarios usuarioLogado) {
+        // Busca a tentativa, lançando uma exceção clara se não for encontrada (ou não pertencer ao usuário)
+        return tentativasSimuladoRepository
+                .findByIdAndUsuarioId(tentativaId, usuarioLogado.getId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Tentativa com ID " + tentativaId + " não encontrada ou não pertence ao usuário."
+                ));
+    }
+
+    /**
+     * Confere o descritor assinado e cria a tentativa só agora. As respostas precisam ser
+     * exatamente das questões e alternativas que o descritor entregou ao usuário.
+     */
+    private TentativasSimulados criarTentativaDoDescritor(String descritor, Map<Integer, Integer> respostas, Usuarios usuarioLogado) {
+        DescritorSimulado.Conteudo conteudo = descritorSimulado.verificar(descritor, usuarioLogado.getId());
+        for (Map.Entry<Integer, Integer> resposta : respostas.entrySet()) {
+            Set<Integer> alternativas = conteudo.alternativasPorTopico().get(resposta.getKey());
+            if (alternativas == null || !alternativas.contains(resposta.getValue())) {
+                throw new IllegalStateException("A resposta do tópico " + resposta.getKey() + " não pertence a este simulado.");
+            }
+        }
+
+        TentativasSimulados tentativa = new TentativasSimulados();
+        tentativa.setUsuario(usuarioLogado);
+        tentativa.setDataInicio(conteudo.emitidoEm().atOffset(ZoneOffset.UTC));
+        tentativa.setPontuacaoFinal(BigDecimal.ZERO);
+        tentativa.setDescritorHash(conteudo.hash());
+        try {
+            // O flush imediato faz o índice único do hash barrar uma segunda submissão da mesma prova.
+            return tentativasSimuladoRepository.saveAndFlush(tentativa);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Este simulado já foi submetido.");
+        }
+    }
+
     private Usuarios getUsuarioLogado() throws AuthException {
         var auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !auth.isAuthenticated() || !(auth.getPrincipal() instanceof Usuarios)) {
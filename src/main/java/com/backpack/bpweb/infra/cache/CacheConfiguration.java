@@ -0,0 +1,134 @@
+package com.backpack.bpweb.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Caches em memória da aplicação. Cada cache é registrado aqui com os limites de
+ * {@link CachesProperties} e com estatísticas ligadas, para que o actuator publique as métricas
+ * {@code cache.gets}, {@code cache.puts} e {@code cache.evictions} de cada um.
+ */
+@Configuration
+@EnableConfigurationProperties(CachesProperties.class)
+public class CacheConfiguration {
+
+    /** Tópico -> alternativa correta, usado na correção e aquecido pelo índice do banco de questões. */
+    public static final String GABARITO = "gabarito";
+
+    /** Subject do token -> retrato imutável do usuário autenticado, usado pelo filtro de segurança. */
+    public static final String PRINCIPAIS = "principais";
+
+    /** SHA-256 do token -> subject e expiração, para não verificar de novo a assinatura de um token repetido. */
+    public static final String TOKENS = "tokens";
+
+    /** Id do usuário -> versão vigente do token; o TTL limita por quanto tempo outra instância aceita um token já revogado. */
+    public static final String VERSOES_TOKEN = "versoes-token";
+
+    /**
+     * Total de aulas e de resumos do catálogo, usado nas estatísticas do usuário. A alteração no
+     * catálogo descarta na hora; o TTL só cobre as outras instâncias.
+     */
+    public static final String TOTAIS_CATALOGO = "totais-catalogo";
+
+    /** Id do usuário -> bitmap das aulas concluídas, limitado por memória e não por quantidade. */
+    public static final String AULAS_CONCLUIDAS = "aulas-concluidas";
+
+    /**
+     * Versão do catálogo e consulta normalizada -> resposta JSON já serializada, limitado por memória.
+     * Entradas de versões antigas não são mais lidas, mas a política do Caffeine (W-TinyLFU) descarta
+     * por frequência estimada e não por ordem de uso, então nada garante que saiam antes das atuais:
+     * quem as remove é o TTL.
+     */
+    public static final String RESPOSTAS_CATALOGO = "respostas-catalogo";
+
+    /**
+     * Id da matéria -> índice do banco de questões. Os limites vêm daqui, mas o cache é assíncrono e
+     * montado pelo próprio {@code BancoQuestoesIndex}, fora do {@link CacheManager}. O TTL traz as
+     * alterações feitas em outra instância, que não passam pela invalidação local.
+     */
+    public static final String BANCO_QUESTOES = "banco-questoes";
+
+    @Bean
+    public CacheManager cacheManager(CachesProperties caches) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Só os caches configurados existem; um nome desconhecido não cria um cache sem limite.
+        cacheManager.setCacheNames(List.of());
+        caches.limites().forEach((nome, limites) -> {
+            if (!nome.equals(BANCO_QUESTOES)) {
+                cacheManager.registerCustomCache(nome, construtor(limites).build());
+            }
+        });
+        return cacheManager;
+    }
+
+    /**
+     * Caches limitados por memória pesam cada valor pelo tamanho em bytes: quem concluiu mil aulas
+     * ocupa mais orçamento que quem concluiu três. O TTL conta da escrita e leituras não o renovam;
+     * valores {@link ComPrazo} expiram antes se o prazo deles vier primeiro.
+     */
+    public static Caffeine<Object, Object> construtor(CachesProperties.Limites limites) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (limites.tamanhoMaximo() != null) {
+            builder.maximumSize(limites.tamanhoMaximo());
+        } else {
+            builder.maximumWeight(limites.pesoMaximoBytes())
+                    .weigher((chave, valor) -> valor instanceof ComPeso comPeso ? comPeso.pesoEmBytes()
+                            : valor instanceof byte[] bytes ? bytes.length : 1);
+        }
+        if (limites.ttl() != null) {
+            builder.expireAfter(ateOPrazo(limites.ttl()));
+        }
+        return builder;
+    }
+
+    /**
+     * Valor de cache com prazo próprio, como um principal que não pode durar mais que o token que o gerou.
+     */
+    public interface ComPrazo {
+        Instant validoAte();
+    }
+
+    /**
+     * Valor de cache que informa quanto ocupa, para caches limitados por memória.
+     */
+    public interface ComPeso {
+        int pesoEmBytes();
+    }
+
+    /**
+     * Cada entrada expira no que vier primeiro: o prazo do valor ({@link ComPrazo}) ou o TTL máximo.
+     * Leituras não renovam o prazo.
+     */
+    private static Expiry<Object, Object> ateOPrazo(Duration ttlMaximo) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object chave, Object valor, long agora) {
+                long maximo = ttlMaximo.toNanos();
+                if (valor instanceof ComPrazo comPrazo) {
+                    long restante = Duration.between(Instant.now(), comPrazo.validoAte()).toNanos();
+                    return Math.max(0, Math.min(restante, maximo));
+                }
+                return maximo;
+            }
+
+            @Override
+            public long expireAfterUpdate(Object chave, Object valor, long agora, long duracaoAtual) {
+                return expireAfterCreate(chave, valor, agora);
+            }
+
+            @Override
+            public long expireAfterRead(Object chave, Object valor, long agora, long duracaoAtual) {
+                return duracaoAtual;
+            }
+        };
+    }
+}
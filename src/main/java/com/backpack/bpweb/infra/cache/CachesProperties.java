@@ -0,0 +1,35 @@
+package com.backpack.bpweb.infra.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Limites de cada cache em {@code caches.limites.<nome>}, com o nome das constantes de
+ * {@link CacheConfiguration}. Um cache sem entrada aqui não é registrado.
+ */
+@ConfigurationProperties("caches")
+public record CachesProperties(Map<String, Limites> limites) {
+
+    public CachesProperties {
+        limites = limites == null ? Map.of() : Map.copyOf(limites);
+    }
+
+    /**
+     * Cada cache é limitado por quantidade ({@code tamanho-maximo}) ou por memória
+     * ({@code peso-maximo-bytes}), nunca pelos dois. O {@code ttl} é opcional.
+     */
+    public record Limites(Long tamanhoMaximo, Long pesoMaximoBytes, Duration ttl) {
+
+        public Limites {
+            if ((tamanhoMaximo == null) == (pesoMaximoBytes == null)) {
+                throw new IllegalArgumentException("Informe tamanho-maximo ou peso-maximo-bytes, e só um deles.");
+            }
+        }
+
+        public static Limites porTamanho(long tamanhoMaximo, Duration ttl) {
+            return new Limites(tamanhoMaximo, null, ttl);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.backpack.bpweb.infra.email;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+@Entity(name = "email_outbox")
+@Table(name = "email_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String destinatario;
+    private String assunto;
+    private String corpo;
+    private int tentativas;
+    private OffsetDateTime proximaTentativa;
+    private String ultimoErro;
+    private OffsetDateTime falhouEm;
+    private OffsetDateTime dataCriacao;
+}
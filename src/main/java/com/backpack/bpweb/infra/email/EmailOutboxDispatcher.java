@@ -0,0 +1,158 @@
+package com.backpack.bpweb.infra.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Envia os emails do {@link EmailOutbox} em lotes. Cada lote é reservado com {@code SKIP LOCKED}
+ * e enviado numa única chamada ao {@link JavaMailSender}, que abre uma conexão SMTP para o lote todo.
+ * Enviados são apagados; falhas voltam para a fila com backoff exponencial até o limite de tentativas.
+ *
+ * <p>A entrega é "pelo menos uma vez": se o commit falhar depois do envio, o lote é enviado de novo.</p>
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+    private final EmailOutboxRepository repository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String remetente;
+    private final int tamanhoLote;
+    private final int maximoTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository repository,
+                                 JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${spring.mail.username}") String remetente,
+                                 @Value("${email.outbox.tamanho-lote:50}") int tamanhoLote,
+                                 @Value("${email.outbox.maximo-tentativas:8}") int maximoTentativas,
+                                 @Value("${email.outbox.backoff-inicial-segundos:30}") long backoffInicialSegundos,
+                                 @Value("${email.outbox.backoff-maximo-segundos:3600}") long backoffMaximoSegundos) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.remetente = remetente;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.backoffInicial = Duration.ofSeconds(backoffInicialSegundos);
+        this.backoffMaximo = Duration.ofSeconds(backoffMaximoSegundos);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.intervalo-ms:2000}")
+    public void despachar() {
+        // Lote cheio indica que pode haver mais; lote parcial encerra até a próxima rodada.
+        int processados;
+        do {
+            processados = Objects.requireNonNull(transactionTemplate.execute(status -> despacharLote()));
+        } while (processados == tamanhoLote);
+    }
+
+    int despacharLote() {
+        List<EmailOutbox> pendentes = repository.reservarPendentes(tamanhoLote);
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, EmailOutbox> mensagens = new LinkedHashMap<>();
+        for (EmailOutbox email : pendentes) {
+            try {
+                mensagens.put(montar(email), email);
+            } catch (MessagingException e) {
+                registrarFalha(email, e);
+            }
+        }
+
+        Map<Object, Exception> falhas = enviar(mensagens.keySet());
+        List<EmailOutbox> enviados = new ArrayList<>(mensagens.size());
+        mensagens.forEach((mensagem, email) -> {
+            Exception falha = falhas.get(mensagem);
+            if (falha != null) {
+                registrarFalha(email, falha);
+            } else {
+                enviados.add(email);
+            }
+        });
+        repository.deleteAllInBatch(enviados);
+        return pendentes.size();
+    }
+
+    private Map<Object, Exception> enviar(Collection<MimeMessage> mensagens) {
+        if (mensagens.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mailSender.send(mensagens.toArray(MimeMessage[]::new));
+            return Map.of();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return todasFalharam(mensagens, e);
+        } catch (MailException e) {
+            // Autenticação ou configuração: nenhuma mensagem saiu.
+            return todasFalharam(mensagens, e);
+        }
+    }
+
+    private static Map<Object, Exception> todasFalharam(Collection<MimeMessage> mensagens, Exception e) {
+        Map<Object, Exception> falhas = new HashMap<>();
+        mensagens.forEach(mensagem -> falhas.put(mensagem, e));
+        return falhas;
+    }
+
+    private MimeMessage montar(EmailOutbox email) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setFrom(remetente);
+        helper.setTo(email.getDestinatario());
+        helper.setSubject(email.getAssunto());
+        helper.setText(email.getCorpo(), true);
+        return mimeMessage;
+    }
+
+    private void registrarFalha(EmailOutbox email, Exception e) {
+        int tentativas = email.getTentativas() + 1;
+        email.setTentativas(tentativas);
+        email.setUltimoErro(resumir(e));
+        if (tentativas >= maximoTentativas) {
+            email.setFalhouEm(OffsetDateTime.now());
+            // O corpo pode conter uma senha; não fica guardado depois de desistir.
+            email.setCorpo(null);
+            log.error("Email {} descartado após {} tentativas: {}", email.getId(), tentativas, email.getUltimoErro());
+            return;
+        }
+        email.setProximaTentativa(OffsetDateTime.now().plus(backoff(tentativas)));
+        log.warn("Falha ao enviar email {} (tentativa {}): {}", email.getId(), tentativas, email.getUltimoErro());
+    }
+
+    private Duration backoff(int tentativas) {
+        // 30s, 1min, 2min, 4min... limitado ao máximo.
+        Duration espera = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(backoffMaximo) > 0 ? backoffMaximo : espera;
+    }
+
+    private static String resumir(Exception e) {
+        String mensagem = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return mensagem.length() > TAMANHO_MAXIMO_ERRO ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem;
+    }
+}
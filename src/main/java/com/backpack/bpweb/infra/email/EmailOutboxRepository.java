@@ -0,0 +1,23 @@
+package com.backpack.bpweb.infra.email;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Trava até {@code limite} emails prontos para envio. {@code SKIP LOCKED} deixa outra instância
+     * pegar os próximos em vez de esperar, então dois despachantes nunca enviam o mesmo email.
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE falhou_em IS NULL AND proxima_tentativa <= NOW()
+            ORDER BY id
+            LIMIT :limite
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> reservarPendentes(@Param("limite") int limite);
+}
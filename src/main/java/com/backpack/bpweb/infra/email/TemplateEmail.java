@@ -0,0 +1,72 @@
+package com.backpack.bpweb.infra.email;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Template HTML com marcadores {@code {CHAVE}}, quebrado em trechos uma única vez.
+ * Renderizar só concatena os trechos fixos com os valores, já escapados para HTML.
+ */
+public final class TemplateEmail {
+
+    private static final Pattern MARCADOR = Pattern.compile("[A-Z_]+");
+
+    private final String[] trechos;
+    private final String[] chaves;
+    private final int tamanhoFixo;
+
+    private TemplateEmail(String[] trechos, String[] chaves) {
+        this.trechos = trechos;
+        this.chaves = chaves;
+        int tamanho = 0;
+        for (String trecho : trechos) {
+            tamanho += trecho.length();
+        }
+        this.tamanhoFixo = tamanho;
+    }
+
+    public static TemplateEmail compilar(String template) {
+        List<String> trechos = new ArrayList<>();
+        List<String> chaves = new ArrayList<>();
+        int fimAnterior = 0;
+        int busca = 0;
+        int abre;
+        while ((abre = template.indexOf('{', busca)) >= 0) {
+            int fecha = template.indexOf('}', abre);
+            if (fecha < 0) {
+                break;
+            }
+            String chave = template.substring(abre + 1, fecha);
+            // Só marcadores em maiúsculas: as chaves do CSS ficam como estão.
+            if (!MARCADOR.matcher(chave).matches()) {
+                busca = abre + 1;
+                continue;
+            }
+            trechos.add(template.substring(fimAnterior, abre));
+            chaves.add(chave);
+            fimAnterior = fecha + 1;
+            busca = fimAnterior;
+        }
+        trechos.add(template.substring(fimAnterior));
+        return new TemplateEmail(trechos.toArray(String[]::new), chaves.toArray(String[]::new));
+    }
+
+    /**
+     * @throws IllegalArgumentException se faltar o valor de algum marcador
+     */
+    public String renderizar(Map<String, String> valores) {
+        StringBuilder sb = new StringBuilder(tamanhoFixo + 64 * chaves.length);
+        for (int i = 0; i < chaves.length; i++) {
+            String valor = valores.get(chaves[i]);
+            if (valor == null) {
+                throw new IllegalArgumentException("Valor não informado para o marcador: " + chaves[i]);
+            }
+            sb.append(trechos[i]).append(HtmlUtils.htmlEscape(valor));
+        }
+        return sb.append(trechos[chaves.length]).toString();
+    }
+}
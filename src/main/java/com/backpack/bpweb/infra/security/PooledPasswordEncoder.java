@@ -0,0 +1,91 @@
+package com.backpack.bpweb.infra.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * {@link PasswordEncoder} que executa o BCrypt em um pool próprio de tamanho fixo, com fila limitada.
+ * A thread da requisição continua esperando o resultado, mas no máximo {@code threads} hashes rodam
+ * ao mesmo tempo: um pico de logins e cadastros não ocupa todos os núcleos e não trava os demais endpoints.
+ * Com a fila cheia, a chamada falha na hora com {@link SenhaIndisponivelException} (503).
+ */
+public class PooledPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejeitadas;
+
+    public PooledPasswordEncoder(PasswordEncoder delegate, int threads, int capacidadeFila, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "senha-hash-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("senha.hash.duracao").tag("operacao", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("senha.hash.duracao").tag("operacao", "matches").register(meterRegistry);
+        this.rejeitadas = Counter.builder("senha.hash.rejeitadas").register(meterRegistry);
+        Gauge.builder("senha.hash.fila", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("senha.hash.ativas", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Só lê o prefixo do hash, não precisa do pool.
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T executar(Timer timer, Supplier<T> operacao) {
+        Future<T> futuro;
+        try {
+            // O timer mede só o hash; a espera na fila aparece no gauge da fila.
+            futuro = executor.submit(() -> timer.record(operacao));
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw new SenhaIndisponivelException();
+        }
+
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava o hash da senha.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
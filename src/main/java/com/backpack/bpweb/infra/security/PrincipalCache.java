@@ -0,0 +1,66 @@
+package com.backpack.bpweb.infra.security;
+
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import com.backpack.bpweb.user.entity.Usuarios;
+import com.backpack.bpweb.user.repositories.UsuariosRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * Usuários autenticados por subject do token, guardados no cache {@link CacheConfiguration#PRINCIPAIS}
+ * para que o filtro de segurança não consulte o banco a cada requisição. A entrada nunca dura mais
+ * que o token que a carregou nem que o TTL máximo configurado.
+ *
+ * <p>O cache guarda um retrato imutável do usuário, sem a senha; cada requisição recebe a sua
+ * própria instância de {@link Usuarios}, então alterar o principal não afeta as outras.</p>
+ */
+@Component
+public class PrincipalCache {
+
+    private final UsuariosRepository usuariosRepository;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+
+    public PrincipalCache(UsuariosRepository usuariosRepository, CacheManager cacheManager) {
+        this.usuariosRepository = usuariosRepository;
+        this.cache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.PRINCIPAIS))).getNativeCache();
+    }
+
+    /**
+     * Devolve o usuário do token, ou {@code null} se não existir. Usuários inexistentes não ficam em cache.
+     */
+    public Usuarios buscar(TokenService.TokenValidado token) {
+        Principal principal = (Principal) cache.get(token.subject(), subject -> carregar((String) subject, token.expiraEm()));
+        return principal == null ? null : principal.paraUsuario();
+    }
+
+    /**
+     * Descarta o usuário depois do commit da transação atual, para que a próxima requisição leia o estado novo.
+     */
+    public void invalidar(String subject) {
+        TransactionHooks.afterCommit(() -> cache.invalidate(subject));
+    }
+
+    private Principal carregar(String subject, Instant expiraEm) {
+        Usuarios usuario = usuariosRepository.findByEmail(subject);
+        if (usuario == null) {
+            return null;
+        }
+        return new Principal(usuario.getId(), usuario.getNomeCompleto(), usuario.getEmail(), usuario.getIdade(),
+                usuario.getDataCriacao(), usuario.getDataAtualizacao(), usuario.getVersaoToken(),
+                expiraEm == null ? Instant.now() : expiraEm);
+    }
+
+    private record Principal(int id, String nomeCompleto, String email, Integer idade, OffsetDateTime dataCriacao,
+                             OffsetDateTime dataAtualizacao, int versaoToken, Instant validoAte) implements CacheConfiguration.ComPrazo {
+
+        Usuarios paraUsuario() {
+            return new Usuarios(id, nomeCompleto, email, idade, null, dataCriacao, dataAtualizacao, versaoToken);
+        }
+    }
+}
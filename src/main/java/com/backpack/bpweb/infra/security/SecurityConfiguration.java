@@ -1,6 +1,8 @@
 package com.backpack.bpweb.infra.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -28,13 +30,16 @@ public class SecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
-                        .requestMatchers(HttpMethod.GET, "/", "/**.html", "/assets/**", "/js/**", "/css/**", "/pages/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/", "/**.html", "/assets/**", "/js/**", "/css/**", "/pages/**", "/dist/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/auth/me").permitAll()
                         .requestMatchers(HttpMethod.GET, "api/v1/progresso/aulas").permitAll()
                         .requestMatchers(HttpMethod.POST, "api/v1/progresso/aulas").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/ai/gemini/async/desempenho").permitAll()
                         .requestMatchers("/error").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        // Métricas expõem nomes de caches, rotas e volumes: só para administradores.
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
@@ -46,8 +51,16 @@ public class SecurityConfiguration {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * Único encoder de senhas da aplicação, usado no login (pelo {@code AuthenticationManager}),
+     * no cadastro e na troca de senha. O custo do BCrypt só vale para hashes novos;
+     * os já gravados guardam o próprio custo.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${seguranca.senha.bcrypt-custo:10}") int custo,
+                                           @Value("${seguranca.senha.threads:2}") int threads,
+                                           @Value("${seguranca.senha.capacidade-fila:64}") int capacidadeFila,
+                                           MeterRegistry meterRegistry) {
+        return new PooledPasswordEncoder(new BCryptPasswordEncoder(custo), threads, capacidadeFila, meterRegistry);
     }
 }
@@ -1,7 +1,6 @@
 package com.backpack.bpweb.infra.security;
 
 import com.backpack.bpweb.user.entity.Usuarios;
-import com.backpack.bpweb.user.repositories.UsuariosRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,18 +20,31 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     TokenService tokenService;
     @Autowired
-    UsuariosRepository repository;
+    PrincipalCache principalCache;
+    @Autowired
+    VersaoTokenCache versaoTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var token = this.recoverToken(request);
         if (token != null) {
-            var subject = tokenService.validateToken(token);
-            Usuarios usuario = repository.findByEmail(subject);
-
-            if (usuario != null) {
-                var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            var tokenValidado = tokenService.verificar(token).orElse(null);
+            if (tokenValidado != null) {
+                var claims = tokenValidado.claims();
+                if (claims != null) {
+                    // Token com claims: o principal sai do próprio token, sem consultar o usuário.
+                    if (versaoTokenCache.vigente(claims.id(), claims.versao())) {
+                        Usuarios usuario = claims.paraUsuario(tokenValidado.subject());
+                        var authentication = new UsernamePasswordAuthenticationToken(usuario, null, claims.authorities());
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
+                } else {
+                    Usuarios usuario = principalCache.buscar(tokenValidado);
+                    if (usuario != null) {
+                        var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
+                }
             }
         }
         filterChain.doFilter(request, response);
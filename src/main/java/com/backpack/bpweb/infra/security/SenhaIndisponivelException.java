@@ -0,0 +1,12 @@
+package com.backpack.bpweb.infra.security;
+
+/**
+ * O pool de hash de senhas está cheio. Não estende {@code AuthenticationException} de propósito:
+ * no login ela atravessa o {@code AuthenticationManager} e vira 503, não 401.
+ */
+public class SenhaIndisponivelException extends RuntimeException {
+
+    public SenhaIndisponivelException() {
+        super("Servidor ocupado processando senhas. Tente novamente em alguns segundos.");
+    }
+}
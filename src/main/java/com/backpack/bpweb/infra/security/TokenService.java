@@ -1,30 +1,80 @@
 package com.backpack.bpweb.infra.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
 import com.backpack.bpweb.user.entity.Usuarios;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
+/**
+ * Emissão e validação dos JWTs de sessão. O algoritmo e o verificador são montados uma vez;
+ * tokens já validados ficam no cache {@link CacheConfiguration#TOKENS}, indexados pelo SHA-256
+ * do token, para que o mesmo token repetido a cada requisição não refaça a verificação
+ * da assinatura e o parse das claims. A entrada expira junto com o token.
+ *
+ * <p>Com {@code seguranca.token.claims.habilitado}, o token também leva id, nome, idade, papéis e
+ * a versão do token do usuário, e o filtro de segurança monta o principal direto das claims.
+ * Tokens sem essas claims continuam aceitos e seguem pelo {@link PrincipalCache}.</p>
+ */
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "auth-api";
+    private static final String CLAIM_ID = "uid";
+    private static final String CLAIM_NOME = "nome";
+    private static final String CLAIM_IDADE = "idade";
+    private static final String CLAIM_PAPEIS = "roles";
+    private static final String CLAIM_VERSAO = "ver";
+
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> tokensValidados;
+    private final boolean emitirClaims;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+                        @Value("${seguranca.token.claims.habilitado:false}") boolean emitirClaims,
+                        CacheManager cacheManager) {
+        this.emitirClaims = emitirClaims;
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.tokensValidados = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.TOKENS))).getNativeCache();
+    }
 
     public String generateToken(Usuarios user) {
         try{
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            String token = JWT.create()
-                    .withIssuer("auth-api")
+            var builder = JWT.create()
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
-                    .withExpiresAt(genExpirationDate())
-                    .sign(algorithm);
+                    .withExpiresAt(genExpirationDate());
+            if (emitirClaims) {
+                builder.withClaim(CLAIM_ID, user.getId())
+                        .withClaim(CLAIM_NOME, user.getNomeCompleto())
+                        .withClaim(CLAIM_IDADE, user.getIdade())
+                        .withClaim(CLAIM_PAPEIS, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+                        .withClaim(CLAIM_VERSAO, user.getVersaoToken());
+            }
+            String token = builder.sign(algorithm);
             return token;
         } catch (JWTCreationException exception){
             throw new RuntimeException("Erro ao gerar token JWT", exception);
@@ -32,15 +82,30 @@ public class TokenService {
     }
 
     public String validateToken(String token) {
+        return verificar(token).map(TokenValidado::subject).orElse("");
+    }
+
+    /**
+     * Valida o token e devolve o subject junto com a expiração, para quem precisa
+     * guardar algo derivado do token sem que dure mais que ele.
+     */
+    public Optional<TokenValidado> verificar(String token) {
+        String digest = digest(token);
+        TokenValidado emCache = (TokenValidado) tokensValidados.getIfPresent(digest);
+        if (emCache != null && emCache.expiraEm().isAfter(Instant.now())) {
+            return Optional.of(emCache);
+        }
+
         try{
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            DecodedJWT jwt = verifier.verify(token);
+            TokenValidado validado = new TokenValidado(jwt.getSubject(), jwt.getExpiresAtAsInstant(), claimsDoUsuario(jwt));
+            // Tokens sem expiração não entram no cache: nada limitaria a vida da entrada além do TTL máximo.
+            if (validado.expiraEm() != null) {
+                tokensValidados.put(digest, validado);
+            }
+            return Optional.of(validado);
         } catch (Exception exception){
-            return "";
+            return Optional.empty();
         }
     }
 
@@ -51,4 +116,47 @@ public class TokenService {
     public Instant genExpirationDate() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
+
+    private static ClaimsUsuario claimsDoUsuario(DecodedJWT jwt) {
+        if (jwt.getClaim(CLAIM_ID).isMissing() || jwt.getClaim(CLAIM_VERSAO).isMissing()) {
+            return null;
+        }
+        List<String> papeis = jwt.getClaim(CLAIM_PAPEIS).asList(String.class);
+        return new ClaimsUsuario(jwt.getClaim(CLAIM_ID).asInt(), jwt.getClaim(CLAIM_NOME).asString(),
+                jwt.getClaim(CLAIM_IDADE).asInt(), papeis == null ? List.of() : List.copyOf(papeis),
+                jwt.getClaim(CLAIM_VERSAO).asInt());
+    }
+
+    // O token é uma credencial: o cache guarda só o hash dele.
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Token verificado. {@code claims} é {@code null} para tokens emitidos sem as claims do usuário.
+     */
+    public record TokenValidado(String subject, Instant expiraEm, ClaimsUsuario claims) implements CacheConfiguration.ComPrazo {
+        @Override
+        public Instant validoAte() {
+            return expiraEm;
+        }
+    }
+
+    public record ClaimsUsuario(int id, String nomeCompleto, Integer idade, List<String> papeis, int versao) {
+
+        /**
+         * Usuário montado só com o que o token traz, sem senha e sem datas.
+         */
+        public Usuarios paraUsuario(String email) {
+            return new Usuarios(id, nomeCompleto, email, idade, null, null, null, versao);
+        }
+
+        public List<SimpleGrantedAuthority> authorities() {
+            return papeis.stream().map(SimpleGrantedAuthority::new).toList();
+        }
+    }
 }
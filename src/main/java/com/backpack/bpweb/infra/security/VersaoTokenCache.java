@@ -0,0 +1,43 @@
+package com.backpack.bpweb.infra.security;
+
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import com.backpack.bpweb.user.repositories.UsuariosRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Versão vigente do token de cada usuário, guardada no cache {@link CacheConfiguration#VERSOES_TOKEN}.
+ * Um token com claims só vale se a versão dele for a vigente; incrementar a versão revoga
+ * todos os tokens emitidos antes. Na instância que fez a alteração o efeito é imediato;
+ * nas demais, vale quando a entrada expira.
+ */
+@Component
+public class VersaoTokenCache {
+
+    private final UsuariosRepository usuariosRepository;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+
+    public VersaoTokenCache(UsuariosRepository usuariosRepository, CacheManager cacheManager) {
+        this.usuariosRepository = usuariosRepository;
+        this.cache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.VERSOES_TOKEN))).getNativeCache();
+    }
+
+    /**
+     * {@code true} se a versão do token é a vigente para o usuário. Usuários inexistentes não ficam em cache.
+     */
+    public boolean vigente(int usuarioId, int versao) {
+        Integer atual = (Integer) cache.get(usuarioId, id -> usuariosRepository.findVersaoTokenById((Integer) id).orElse(null));
+        return atual != null && atual == versao;
+    }
+
+    /**
+     * Publica a nova versão depois do commit da transação atual.
+     */
+    public void atualizar(int usuarioId, int versao) {
+        TransactionHooks.afterCommit(() -> cache.put(usuarioId, versao));
+    }
+}
@@ -0,0 +1,26 @@
+package com.backpack.bpweb.infra.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Endpoints de leitura do catálogo que respondem com ETag. Ficam de fora os que dependem
+ * do usuário, como o progresso por matéria.
+ */
+@Configuration
+public class CatalogoEtagConfiguration implements WebMvcConfigurer {
+
+    private final CatalogoEtagInterceptor catalogoEtagInterceptor;
+
+    public CatalogoEtagConfiguration(CatalogoEtagInterceptor catalogoEtagInterceptor) {
+        this.catalogoEtagInterceptor = catalogoEtagInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogoEtagInterceptor)
+                .addPathPatterns("/api/v1/materias/**", "/api/v1/aulas/**", "/api/v1/resumo/**", "/api/v1/topicos/**")
+                .excludePathPatterns("/api/v1/materias/meu-progresso");
+    }
+}
@@ -0,0 +1,50 @@
+package com.backpack.bpweb.infra.web;
+
+import com.backpack.bpweb.chore.catalogo.CatalogoVersao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Leituras do catálogo com ETag forte a partir da {@link CatalogoVersao}. Um {@code If-None-Match}
+ * com a versão atual é respondido com 304 aqui mesmo, antes do controller e do repositório.
+ *
+ * <p>O {@code Cache-Control: private, no-cache} deixa o navegador guardar a resposta e obriga a
+ * revalidação a cada uso; sem ele valeria o {@code no-store} que o Spring Security põe por padrão.</p>
+ */
+@Component
+public class CatalogoEtagInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final CatalogoVersao catalogoVersao;
+    private final Counter naoModificadas;
+    private final Counter completas;
+
+    public CatalogoEtagInterceptor(CatalogoVersao catalogoVersao, MeterRegistry meterRegistry) {
+        this.catalogoVersao = catalogoVersao;
+        this.naoModificadas = Counter.builder("catalogo.leituras").tag("resultado", "nao-modificada").register(meterRegistry);
+        this.completas = Counter.builder("catalogo.leituras").tag("resultado", "completa").register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (new ServletWebRequest(request, response).checkNotModified(catalogoVersao.etag())) {
+            naoModificadas.increment();
+            return false;
+        }
+        completas.increment();
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.backpack.bpweb.infra.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Arquivos de {@code /dist/**}, gerados no build por {@code PipelineAssets} com o hash do
+ * conteúdo no nome. Como o nome muda junto com o conteúdo, podem ficar em cache no navegador
+ * sem revalidação. O {@link EncodedResourceResolver} entrega a variante {@code .br} ou
+ * {@code .gz} gravada no build conforme o {@code Accept-Encoding}, sem comprimir nada na hora.
+ *
+ * <p>O restante dos estáticos (HTML e os originais sem hash) fica no mapeamento padrão do
+ * Spring Boot, configurado em {@code spring.web.resources.*}: também usa as variantes
+ * comprimidas, mas é sempre revalidado.</p>
+ */
+@Configuration
+public class RecursosEstaticosConfiguration implements WebMvcConfigurer {
+
+    private final Duration validadeDist;
+
+    public RecursosEstaticosConfiguration(@Value("${recursos.dist.validade-dias:365}") long validadeDistDias) {
+        this.validadeDist = Duration.ofDays(validadeDistDias);
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/dist/**")
+                .addResourceLocations("classpath:/static/dist/")
+                .setCacheControl(CacheControl.maxAge(validadeDist).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+}
@@ -0,0 +1,10 @@
+package com.backpack.bpweb.progresso.progressoAula.DTOs;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record PosicaoAulaRequestDTO(
+        @NotNull(message = "A posição não pode ser vazia.")
+        @PositiveOrZero(message = "A posição não pode ser negativa.")
+        Integer posicaoSegundos
+) {}
@@ -0,0 +1,11 @@
+package com.backpack.bpweb.progresso.progressoAula.DTOs;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record ProgressoAulaItemDTO(
+        @NotNull(message = "A aula não pode ser vazia.")
+        Integer aulaId,
+        @NotBlank(message = "O status não pode ser vazio.")
+        String status
+) {}
@@ -0,0 +1,13 @@
+package com.backpack.bpweb.progresso.progressoAula.DTOs;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProgressoAulaLoteRequestDTO(
+        @NotEmpty(message = "O lote não pode ser vazio.")
+        @Size(max = 500, message = "O lote pode ter no máximo 500 aulas.")
+        List<@Valid ProgressoAulaItemDTO> itens
+) {}
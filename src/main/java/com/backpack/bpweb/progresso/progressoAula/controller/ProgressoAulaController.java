@@ -1,15 +1,20 @@
 package com.backpack.bpweb.progresso.progressoAula.controller;
 
+import com.backpack.bpweb.progresso.progressoAula.DTOs.PosicaoAulaRequestDTO;
+import com.backpack.bpweb.progresso.progressoAula.DTOs.ProgressoAulaLoteRequestDTO;
 import com.backpack.bpweb.progresso.progressoAula.DTOs.ProgressoAulaResponseDTO;
 import com.backpack.bpweb.progresso.progressoAula.DTOs.ProgressoAulaUpdateRequestDTO;
 import com.backpack.bpweb.progresso.progressoAula.service.ProgressoAulaService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.security.auth.message.AuthException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("api/v1/progresso")
@@ -29,4 +34,24 @@ public class ProgressoAulaController {
         ProgressoAulaUpdateRequestDTO progressoAtualizado = progressoService.marcarProgresso(aulaId, requestDTO.status());
         return ResponseEntity.ok(progressoAtualizado);
     }
+
+    @PostMapping("/lote")
+    public ResponseEntity<?> marcarProgressoEmLote(@RequestBody @Valid ProgressoAulaLoteRequestDTO requestDTO) throws AuthException {
+        try {
+            List<ProgressoAulaResponseDTO> progressos = progressoService.marcarProgressoEmLote(requestDTO.itens());
+            return ResponseEntity.ok(progressos);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{aulaId}/posicao")
+    public ResponseEntity<?> registrarPosicao(@PathVariable Integer aulaId, @RequestBody @Valid PosicaoAulaRequestDTO requestDTO) throws AuthException {
+        if (!progressoService.registrarPosicao(aulaId, requestDTO.posicaoSegundos())) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", "Posição não registrada. Tente novamente em instantes."));
+        }
+        return ResponseEntity.accepted().build();
+    }
 }
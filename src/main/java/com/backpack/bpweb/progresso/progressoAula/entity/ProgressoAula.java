@@ -32,5 +32,6 @@ public class ProgressoAula {
     @JoinColumn(name = "status_id")
     private StatusProgressoAula status;
     private OffsetDateTime dataVisualizacao;
+    private int posicaoSegundos;
 
 }
@@ -4,11 +4,13 @@ import com.backpack.bpweb.chore.aulas.entity.Aula;
 import com.backpack.bpweb.progresso.progressoAula.entity.ProgressoAula;
 import com.backpack.bpweb.user.entity.Usuarios;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface ProgressoAulaRepository extends JpaRepository<ProgressoAula, Integer> {
+public interface ProgressoAulaRepository extends JpaRepository<ProgressoAula, Integer>, ProgressoAulaRepositoryCustom {
     // Busca todos os registros de progresso para um usuário específico.
     List<ProgressoAula> findByUsuario(Usuarios usuario);
 
@@ -18,4 +20,12 @@ public interface ProgressoAulaRepository extends JpaRepository<ProgressoAula, In
     long countByUsuarioAndStatus_nome(Usuarios usuario, String statusNome);
 
     List<ProgressoAula> findByUsuarioAndStatus_nome(Usuarios usuario, String statusNome);
+
+    // Só os ids das aulas concluídas, sem carregar as entidades.
+    @Query(nativeQuery = true, value = """
+            SELECT p.aula_id FROM progresso_aulas_usuario p
+            JOIN status_progresso_aula s ON s.id = p.status_id
+            WHERE p.usuario_id = :usuarioId AND s.nome = 'CONCLUIDO'
+            """)
+    List<Integer> findAulasConcluidasIds(@Param("usuarioId") int usuarioId);
 }
@@ -0,0 +1,35 @@
+package com.backpack.bpweb.progresso.progressoAula.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProgressoAulaRepositoryCustom {
+
+    /**
+     * Grava o status de várias aulas do usuário, inserindo ou atualizando cada par usuário/aula.
+     * Aulas que não existem são ignoradas e ficam de fora do retorno. As listas têm o mesmo tamanho
+     * e não podem repetir aula. O status anterior é o da linha travada por esta transação, então
+     * gravações concorrentes da mesma aula nunca veem as duas o mesmo status de antes.
+     *
+     * @return uma alteração por aula gravada, com o status de antes e o de agora
+     */
+    List<AlteracaoProgressoAula> gravarEmLote(int usuarioId, List<Integer> aulaIds, List<Integer> statusIds, LocalDateTime quando);
+
+    /**
+     * Grava a posição no vídeo de vários pares usuário/aula em um único comando. Cria o progresso como
+     * {@code INICIADO} quando ainda não existe; quando existe, só a posição muda. Pares de aulas ou
+     * usuários que não existem mais são ignorados. A lista não pode repetir par.
+     *
+     * @return quantos pares foram gravados
+     */
+    int gravarPosicoes(List<PosicaoAula> posicoes, LocalDateTime quando);
+
+    record PosicaoAula(int usuarioId, int aulaId, int posicaoSegundos) {
+    }
+
+    /**
+     * {@code statusAnteriorId} é {@code null} só quando a linha foi inserida por esta gravação.
+     */
+    record AlteracaoProgressoAula(int aulaId, Integer statusAnteriorId, int statusId) {
+    }
+}
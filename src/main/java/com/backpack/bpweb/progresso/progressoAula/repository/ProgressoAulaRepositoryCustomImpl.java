@@ -0,0 +1,122 @@
+package com.backpack.bpweb.progresso.progressoAula.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+public class ProgressoAulaRepositoryCustomImpl implements ProgressoAulaRepositoryCustom {
+
+    // Dois comandos, e não um upsert com o status anterior lido num WITH: o WITH enxerga o snapshot do início
+    // do comando, então duas primeiras gravações concorrentes da mesma aula viam "sem progresso" e as duas
+    // contavam a conclusão. Aqui o INSERT ... DO NOTHING espera a inserção concorrente terminar e só devolve
+    // as linhas que ele mesmo criou. O JOIN com aulas descarta ids inexistentes em vez de abortar a
+    // transação na chave estrangeira.
+    private static final String INSERIR_PROGRESSO = """
+            INSERT INTO progresso_aulas_usuario (usuario_id, aula_id, status_id, data_visualizacao)
+            SELECT ?, e.aula_id, e.status_id, ?
+            FROM unnest(?::int[], ?::int[]) AS e(aula_id, status_id)
+            JOIN aulas a ON a.id = e.aula_id
+            ON CONFLICT (usuario_id, aula_id) DO NOTHING
+            RETURNING aula_id, status_id
+            """;
+
+    // O segundo comando tem snapshot novo e vê as linhas que o primeiro encontrou. O status anterior é lido
+    // com FOR UPDATE, que espera quem estiver alterando a linha e devolve a versão já gravada por ele.
+    private static final String ATUALIZAR_PROGRESSO = """
+            UPDATE progresso_aulas_usuario p
+            SET status_id = e.status_id, data_visualizacao = ?
+            FROM unnest(?::int[], ?::int[]) AS e(aula_id, status_id),
+                 (SELECT aula_id, status_id FROM progresso_aulas_usuario
+                  WHERE usuario_id = ? AND aula_id = ANY(?::int[])
+                  ORDER BY aula_id
+                  FOR UPDATE) anterior
+            WHERE p.usuario_id = ? AND p.aula_id = e.aula_id AND anterior.aula_id = e.aula_id
+            RETURNING p.aula_id, anterior.status_id, p.status_id
+            """;
+
+    // Status e data de visualização ficam como estão: um heartbeat não desfaz uma conclusão
+    // nem muda as datas usadas pelas estatísticas.
+    private static final String UPSERT_POSICOES = """
+            INSERT INTO progresso_aulas_usuario (usuario_id, aula_id, status_id, posicao_segundos, data_visualizacao)
+            SELECT e.usuario_id, e.aula_id, s.id, e.posicao_segundos, ?
+            FROM unnest(?::bigint[], ?::int[], ?::int[]) AS e(usuario_id, aula_id, posicao_segundos)
+            JOIN usuarios u ON u.id = e.usuario_id
+            JOIN aulas a ON a.id = e.aula_id
+            JOIN status_progresso_aula s ON s.nome = 'INICIADO'
+            ON CONFLICT (usuario_id, aula_id) DO UPDATE SET posicao_segundos = EXCLUDED.posicao_segundos
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProgressoAulaRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<AlteracaoProgressoAula> gravarEmLote(int usuarioId, List<Integer> aulaIds, List<Integer> statusIds, LocalDateTime quando) {
+        if (aulaIds.isEmpty()) {
+            return List.of();
+        }
+        List<AlteracaoProgressoAula> alteracoes = new ArrayList<>(aulaIds.size());
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(INSERIR_PROGRESSO);
+            ps.setLong(1, usuarioId);
+            ps.setObject(2, quando);
+            ps.setArray(3, connection.createArrayOf("int", aulaIds.toArray()));
+            ps.setArray(4, connection.createArrayOf("int", statusIds.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> alteracoes.add(new AlteracaoProgressoAula(rs.getInt(1), null, rs.getInt(2))));
+        if (alteracoes.size() == aulaIds.size()) {
+            return alteracoes;
+        }
+
+        Set<Integer> inseridas = new HashSet<>();
+        alteracoes.forEach(alteracao -> inseridas.add(alteracao.aulaId()));
+        List<Integer> restantes = new ArrayList<>();
+        List<Integer> statusRestantes = new ArrayList<>();
+        for (int i = 0; i < aulaIds.size(); i++) {
+            if (!inseridas.contains(aulaIds.get(i))) {
+                restantes.add(aulaIds.get(i));
+                statusRestantes.add(statusIds.get(i));
+            }
+        }
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(ATUALIZAR_PROGRESSO);
+            ps.setObject(1, quando);
+            ps.setArray(2, connection.createArrayOf("int", restantes.toArray()));
+            ps.setArray(3, connection.createArrayOf("int", statusRestantes.toArray()));
+            ps.setLong(4, usuarioId);
+            ps.setArray(5, connection.createArrayOf("int", restantes.toArray()));
+            ps.setLong(6, usuarioId);
+            return ps;
+        }, (RowCallbackHandler) rs -> alteracoes.add(new AlteracaoProgressoAula(rs.getInt(1), rs.getInt(2), rs.getInt(3))));
+        return alteracoes;
+    }
+
+    @Override
+    public int gravarPosicoes(List<PosicaoAula> posicoes, LocalDateTime quando) {
+        if (posicoes.isEmpty()) {
+            return 0;
+        }
+        int total = posicoes.size();
+        Long[] usuarios = new Long[total];
+        Integer[] aulas = new Integer[total];
+        Integer[] segundos = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            PosicaoAula posicao = posicoes.get(i);
+            usuarios[i] = (long) posicao.usuarioId();
+            aulas[i] = posicao.aulaId();
+            segundos[i] = posicao.posicaoSegundos();
+        }
+        return jdbcTemplate.update(connection -> {
+            var ps = connection.prepareStatement(UPSERT_POSICOES);
+            ps.setObject(1, quando);
+            ps.setArray(2, connection.createArrayOf("bigint", usuarios));
+            ps.setArray(3, connection.createArrayOf("int", aulas));
+            ps.setArray(4, connection.createArrayOf("int", segundos));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package com.backpack.bpweb.progresso.progressoAula.service;
+
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import com.backpack.bpweb.progresso.progressoAula.repository.ProgressoAulaRepository;
+import com.backpack.bpweb.progresso.progressoAula.repository.ProgressoAulaRepositoryCustom.PosicaoAula;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Junta os heartbeats do player antes de gravar: para cada par usuário/aula fica só a última posição,
+ * e as pendentes vão ao banco em lotes a cada {@code progresso.posicao.intervalo-ms}. Com o heartbeat
+ * do player a cada 15 s e a descarga a cada 60 s, cada par grava no máximo uma vez por ciclo: um vídeo
+ * assistido por dez minutos vira dez escritas, não quarenta.
+ *
+ * <p>Também descarrega quando a aula é concluída e no desligamento. Se a aplicação cair sem desligar,
+ * perde-se no máximo um intervalo de posições, o que o próximo heartbeat recupera.</p>
+ */
+@Component
+public class PosicaoAulaBuffer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PosicaoAulaBuffer.class);
+
+    private final ProgressoAulaRepository repository;
+    private final ConcurrentHashMap<Chave, Integer> pendentes = new ConcurrentHashMap<>();
+    private final int maximoPendentes;
+    private final int tamanhoLote;
+    private final Counter novos;
+    private final Counter coalescidos;
+    private final Counter descartados;
+    private final Counter gravados;
+
+    public PosicaoAulaBuffer(ProgressoAulaRepository repository,
+                             MeterRegistry meterRegistry,
+                             @Value("${progresso.posicao.maximo-pendentes:100000}") int maximoPendentes,
+                             @Value("${progresso.posicao.tamanho-lote:1000}") int tamanhoLote) {
+        this.repository = repository;
+        this.maximoPendentes = maximoPendentes;
+        this.tamanhoLote = tamanhoLote;
+        // coalescido = escrita economizada: o heartbeat só substituiu uma posição que ainda não tinha ido ao banco.
+        this.novos = Counter.builder("progresso.posicao.heartbeats").tag("resultado", "pendente").register(meterRegistry);
+        this.coalescidos = Counter.builder("progresso.posicao.heartbeats").tag("resultado", "coalescido").register(meterRegistry);
+        this.descartados = Counter.builder("progresso.posicao.heartbeats").tag("resultado", "descartado").register(meterRegistry);
+        this.gravados = Counter.builder("progresso.posicao.gravadas").register(meterRegistry);
+        Gauge.builder("progresso.posicao.pendentes", pendentes, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * Guarda a posição para a próxima descarga, substituindo a que estiver pendente.
+     *
+     * @return {@code false} se o buffer estiver cheio e o par ainda não tiver posição pendente
+     */
+    public boolean registrar(int usuarioId, int aulaId, int posicaoSegundos) {
+        Chave chave = new Chave(usuarioId, aulaId);
+        if (pendentes.size() >= maximoPendentes && !pendentes.containsKey(chave)) {
+            descartados.increment();
+            return false;
+        }
+        (pendentes.put(chave, posicaoSegundos) == null ? novos : coalescidos).increment();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${progresso.posicao.intervalo-ms:60000}")
+    public void descarregar() {
+        List<PosicaoAula> lote = new ArrayList<>(tamanhoLote);
+        for (Chave chave : pendentes.keySet()) {
+            // remove devolve a posição mais recente; um heartbeat que chegue depois cria outra entrada.
+            Integer posicao = pendentes.remove(chave);
+            if (posicao != null) {
+                lote.add(new PosicaoAula(chave.usuarioId(), chave.aulaId(), posicao));
+                if (lote.size() == tamanhoLote) {
+                    gravarOuDevolver(lote);
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+        }
+        gravarOuDevolver(lote);
+    }
+
+    /**
+     * Grava agora, na transação atual, as posições pendentes dessas aulas do usuário. Elas só saem do
+     * buffer depois do commit, e só se nenhum heartbeat mais novo as tiver substituído; se a transação
+     * for desfeita, continuam pendentes para a próxima descarga.
+     */
+    public void descarregar(int usuarioId, Collection<Integer> aulaIds) {
+        List<PosicaoAula> lote = new ArrayList<>(aulaIds.size());
+        for (Integer aulaId : aulaIds) {
+            Integer posicao = pendentes.get(new Chave(usuarioId, aulaId));
+            if (posicao != null) {
+                lote.add(new PosicaoAula(usuarioId, aulaId, posicao));
+            }
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+        int gravadas = repository.gravarPosicoes(lote, LocalDateTime.now());
+        TransactionHooks.afterCommit(() -> {
+            lote.forEach(posicao -> pendentes.remove(new Chave(posicao.usuarioId(), posicao.aulaId()), posicao.posicaoSegundos()));
+            gravados.increment(gravadas);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        descarregar();
+    }
+
+    private void gravarOuDevolver(List<PosicaoAula> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            gravados.increment(repository.gravarPosicoes(lote, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // Volta para o buffer sem sobrescrever um heartbeat mais novo; a próxima descarga tenta de novo.
+            log.warn("Falha ao gravar {} posições de aula; nova tentativa na próxima descarga", lote.size(), e);
+            lote.forEach(posicao -> pendentes.putIfAbsent(new Chave(posicao.usuarioId(), posicao.aulaId()), posicao.posicaoSegundos()));
+        }
+    }
+
+    private record Chave(int usuarioId, int aulaId) {
+    }
+}
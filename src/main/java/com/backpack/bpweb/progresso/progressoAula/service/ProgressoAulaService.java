@@ -1,15 +1,17 @@
 package com.backpack.bpweb.progresso.progressoAula.service;
 
-import com.backpack.bpweb.chore.aulas.entity.Aula;
-import com.backpack.bpweb.chore.aulas.repository.AulaRepository;
+import com.backpack.bpweb.chore.materias.index.ConclusaoMateriasIndex;
+import com.backpack.bpweb.progresso.progressoAula.DTOs.ProgressoAulaItemDTO;
 import com.backpack.bpweb.progresso.progressoAula.DTOs.ProgressoAulaResponseDTO;
 import com.backpack.bpweb.progresso.progressoAula.DTOs.ProgressoAulaUpdateRequestDTO;
 import com.backpack.bpweb.progresso.progressoAula.entity.ProgressoAula;
 import com.backpack.bpweb.progresso.progressoAula.repository.ProgressoAulaRepository;
+import com.backpack.bpweb.progresso.progressoAula.repository.ProgressoAulaRepositoryCustom.AlteracaoProgressoAula;
 import com.backpack.bpweb.progresso.progressoAula.statusProgressoAula.entity.StatusProgressoAula;
 import com.backpack.bpweb.progresso.progressoAula.statusProgressoAula.repository.StatusProgressoAulaRepository;
 import com.backpack.bpweb.user.entity.Usuarios;
-import com.backpack.bpweb.user.estatistica.DTOs.EstatisticasAulasUsuarioDTO;
+import com.backpack.bpweb.user.estatistica.repository.EstatisticasUsuarioRepository;
+import com.backpack.bpweb.user.estatistica.service.AtividadeDiariaService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.security.auth.message.AuthException;
 import jakarta.transaction.Transactional;
@@ -18,20 +20,29 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class ProgressoAulaService {
 
+    private static final String STATUS_CONCLUIDO = "CONCLUIDO";
+
     @Autowired
     private ProgressoAulaRepository progressoAulaRepository;
     @Autowired
-    private AulaRepository aulaRepository;
-    @Autowired
     private StatusProgressoAulaRepository statusProgressoAulaRepository;
+    @Autowired
+    private EstatisticasUsuarioRepository estatisticasUsuarioRepository;
+    @Autowired
+    private AtividadeDiariaService atividadeDiariaService;
+    @Autowired
+    private ConclusaoMateriasIndex conclusaoMateriasIndex;
+    @Autowired
+    private PosicaoAulaBuffer posicaoAulaBuffer;
+
+    // Os status vêm da migração e não mudam com a aplicação no ar.
+    private volatile Map<String, Integer> statusPorNome;
 
     public List<ProgressoAulaResponseDTO> buscarProgressoDoUsuarioLogado() throws AuthException {
         Usuarios usuarioLogado = getUsuarioLogado();
@@ -44,48 +55,110 @@ public class ProgressoAulaService {
 
     @Transactional
     public ProgressoAulaUpdateRequestDTO marcarProgresso(Integer aulaId, String statusNome) throws AuthException {
-        Usuarios usuarioLogado = getUsuarioLogado();
+        List<ProgressoAulaResponseDTO> gravados = marcarProgressoEmLote(List.of(new ProgressoAulaItemDTO(aulaId, statusNome)));
+        return new ProgressoAulaUpdateRequestDTO(gravados.get(0).status());
+    }
 
-        Aula aula = aulaRepository.findById(aulaId)
-                .orElseThrow(() -> new EntityNotFoundException("Aula não encontrada com o ID: " + aulaId));
+    /**
+     * Aplica várias mudanças de progresso do usuário logado com um único upsert. Se a mesma aula
+     * aparecer mais de uma vez, vale a última. É tudo ou nada: uma aula inexistente desfaz o lote.
+     *
+     * @throws IllegalArgumentException se algum status não existir
+     * @throws EntityNotFoundException se alguma aula não existir
+     */
+    @Transactional
+    public List<ProgressoAulaResponseDTO> marcarProgressoEmLote(List<ProgressoAulaItemDTO> itens) throws AuthException {
+        Usuarios usuarioLogado = getUsuarioLogado();
+        Map<String, Integer> status = statusPorNome();
+
+        Map<Integer, String> statusPorAula = new LinkedHashMap<>();
+        for (ProgressoAulaItemDTO item : itens) {
+            if (!status.containsKey(item.status())) {
+                throw new IllegalArgumentException("Status de progresso inválido: " + item.status());
+            }
+            statusPorAula.put(item.aulaId(), item.status());
+        }
 
-        StatusProgressoAula novoStatus = statusProgressoAulaRepository.findByNome(statusNome)
-                .orElseThrow(() -> new IllegalArgumentException("Status de progresso inválido: " + statusNome));
+        List<Integer> aulaIds = new ArrayList<>(statusPorAula.keySet());
+        List<Integer> statusIds = aulaIds.stream().map(aulaId -> status.get(statusPorAula.get(aulaId))).toList();
+        OffsetDateTime agora = OffsetDateTime.now();
+        List<AlteracaoProgressoAula> alteracoes = progressoAulaRepository.gravarEmLote(usuarioLogado.getId(), aulaIds, statusIds, agora.toLocalDateTime());
 
-        ProgressoAula progresso = progressoAulaRepository.findByUsuarioAndAula(usuarioLogado, aula)
-                .orElse(new ProgressoAula(0, usuarioLogado, aula, null, null));
+        if (alteracoes.size() < aulaIds.size()) {
+            Set<Integer> faltando = new TreeSet<>(aulaIds);
+            alteracoes.forEach(alteracao -> faltando.remove(alteracao.aulaId()));
+            throw new EntityNotFoundException("Aula não encontrada com o ID: " + faltando.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
 
-        progresso.setStatus(novoStatus);
-        progresso.setDataVisualizacao(OffsetDateTime.now());
-        ProgressoAula progressoSalvo = progressoAulaRepository.save(progresso);
+        // Mantém estatisticas_usuario na mesma transação. A primeira conclusão não recua
+        // quando uma aula é desmarcada: é a data da primeira atividade, não do registro mais antigo.
+        int concluidoId = status.get(STATUS_CONCLUIDO);
+        int concluidas = 0;
+        int novasConclusoes = 0;
+        int desmarcadas = 0;
+        int statusAlterados = 0;
+        Map<Integer, Boolean> mudancas = new HashMap<>();
+        for (AlteracaoProgressoAula alteracao : alteracoes) {
+            if (!Objects.equals(alteracao.statusAnteriorId(), alteracao.statusId())) {
+                statusAlterados++;
+            }
+            boolean estavaConcluida = alteracao.statusAnteriorId() != null && alteracao.statusAnteriorId() == concluidoId;
+            boolean ficaConcluida = alteracao.statusId() == concluidoId;
+            if (ficaConcluida) {
+                concluidas++;
+            }
+            if (ficaConcluida != estavaConcluida) {
+                mudancas.put(alteracao.aulaId(), ficaConcluida);
+                if (ficaConcluida) {
+                    novasConclusoes++;
+                } else {
+                    desmarcadas++;
+                }
+            }
+        }
+        if (concluidas > 0) {
+            estatisticasUsuarioRepository.registrarAulaConcluida(usuarioLogado.getId(), novasConclusoes, agora);
+        }
+        if (desmarcadas > 0) {
+            estatisticasUsuarioRepository.removerAulasConcluidas(usuarioLogado.getId(), desmarcadas);
+        }
+        // Remarcar uma aula no mesmo status só atualiza a data: não é atividade nova no dia.
+        // Primeira marcação e troca de status contam uma vez, como cada registro na carga do histórico.
+        if (statusAlterados > 0) {
+            atividadeDiariaService.registrarAulas(usuarioLogado.getId(), agora, statusAlterados);
+        }
+        conclusaoMateriasIndex.registrarConclusoes(usuarioLogado.getId(), mudancas);
+        if (novasConclusoes > 0) {
+            // A posição de quem acabou de concluir não espera o próximo ciclo do buffer.
+            posicaoAulaBuffer.descarregar(usuarioLogado.getId(), mudancas.entrySet().stream()
+                    .filter(Map.Entry::getValue)
+                    .map(Map.Entry::getKey)
+                    .toList());
+        }
 
-        return new ProgressoAulaUpdateRequestDTO(progressoSalvo.getStatus().getNome());
+        return aulaIds.stream()
+                .map(aulaId -> new ProgressoAulaResponseDTO(aulaId, statusPorAula.get(aulaId)))
+                .toList();
     }
 
-    public EstatisticasAulasUsuarioDTO calcularEstatisticasDoUsuario() throws AuthException {
+    /**
+     * Heartbeat do player: a posição fica no {@link PosicaoAulaBuffer} e vai ao banco na próxima descarga.
+     *
+     * @return {@code false} se o buffer estiver cheio e a posição foi descartada
+     */
+    public boolean registrarPosicao(Integer aulaId, int posicaoSegundos) throws AuthException {
         Usuarios usuarioLogado = getUsuarioLogado();
+        return posicaoAulaBuffer.registrar(usuarioLogado.getId(), aulaId, posicaoSegundos);
+    }
 
-        long aulasVistas = progressoAulaRepository.countByUsuarioAndStatus_nome(usuarioLogado, "CONCLUIDO");
-        long totalAulas = aulaRepository.count();
-        long aulasPendentes = Math.max(0, totalAulas - aulasVistas);
-
-        double mediaAulasPorDia = 0.0;
-        if (aulasVistas > 0) {
-            List<ProgressoAula> progressosConcluidos = progressoAulaRepository.findByUsuarioAndStatus_nome(usuarioLogado, "CONCLUIDO");
-
-            OffsetDateTime primeiraVisualizacao = progressosConcluidos.stream()
-                    .min(Comparator.comparing(ProgressoAula::getDataVisualizacao))
-                    .get().getDataVisualizacao();
-
-            OffsetDateTime ultimaVisualizacao = progressosConcluidos.stream()
-                    .max(Comparator.comparing(ProgressoAula::getDataVisualizacao))
-                    .get().getDataVisualizacao();
-
-            long diasDeAtividade = ChronoUnit.DAYS.between(primeiraVisualizacao, ultimaVisualizacao) + 1;
-            mediaAulasPorDia = (double) aulasVistas / diasDeAtividade;
+    private Map<String, Integer> statusPorNome() {
+        Map<String, Integer> atual = statusPorNome;
+        if (atual == null) {
+            atual = statusProgressoAulaRepository.findAll().stream()
+                    .collect(Collectors.toUnmodifiableMap(StatusProgressoAula::getNome, StatusProgressoAula::getId));
+            statusPorNome = atual;
         }
-
-        return new EstatisticasAulasUsuarioDTO(aulasVistas, aulasPendentes, totalAulas, mediaAulasPorDia);
+        return atual;
     }
 
     private Usuarios getUsuarioLogado() throws AuthException {
@@ -0,0 +1,14 @@
+package com.backpack.bpweb.progresso.progressoResumo.DTOs;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProgressoResumoLoteRequestDTO(
+        @NotEmpty(message = "O lote não pode ser vazio.")
+        @Size(max = 500, message = "O lote pode ter no máximo 500 resumos.")
+        List<@NotNull Integer> resumoIds
+) {
+}
@@ -1,13 +1,18 @@
 package com.backpack.bpweb.progresso.progressoResumo.controller;
 
+import com.backpack.bpweb.progresso.progressoResumo.DTOs.ProgressoResumoLoteRequestDTO;
 import com.backpack.bpweb.progresso.progressoResumo.DTOs.ProgressoResumoResponseDTO;
 import com.backpack.bpweb.progresso.progressoResumo.service.ProgressoResumoService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.security.auth.message.AuthException;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/progresso-resumo")
@@ -27,4 +32,14 @@ public class ProgressoResumoController {
         ProgressoResumoResponseDTO progressoAtualizado = progressoResumoService.marcarProgresso(resumoId);
         return ResponseEntity.ok(progressoAtualizado);
     }
+
+    @PostMapping("/lote")
+    public ResponseEntity<?> marcarProgressoEmLote(@RequestBody @Valid ProgressoResumoLoteRequestDTO requestDTO) throws AuthException {
+        try {
+            List<ProgressoResumoResponseDTO> progressos = progressoResumoService.marcarProgressoEmLote(requestDTO.resumoIds());
+            return ResponseEntity.ok(progressos);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
 }
@@ -8,7 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProgressoResumoRepository extends JpaRepository<ProgressoResumo, Integer> {
+public interface ProgressoResumoRepository extends JpaRepository<ProgressoResumo, Integer>, ProgressoResumoRepositoryCustom {
 
     List<ProgressoResumo> findByUsuario(Usuarios usuario);
 
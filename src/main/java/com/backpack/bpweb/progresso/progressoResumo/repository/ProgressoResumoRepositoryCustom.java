@@ -0,0 +1,20 @@
+package com.backpack.bpweb.progresso.progressoResumo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProgressoResumoRepositoryCustom {
+
+    /**
+     * Marca vários resumos como lidos pelo usuário em um único comando. Resumos já lidos mantêm
+     * a data da primeira leitura; resumos que não existem são ignorados e ficam de fora do retorno.
+     * A lista não pode repetir resumo.
+     */
+    List<LeituraResumo> gravarEmLote(int usuarioId, List<Integer> resumoIds, LocalDateTime quando);
+
+    /**
+     * {@code nova} indica que a leitura foi inserida agora, e não encontrada.
+     */
+    record LeituraResumo(int resumoId, LocalDateTime dataLeitura, boolean nova) {
+    }
+}
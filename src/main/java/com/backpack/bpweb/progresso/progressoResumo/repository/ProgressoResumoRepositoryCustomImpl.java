@@ -0,0 +1,40 @@
+package com.backpack.bpweb.progresso.progressoResumo.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ProgressoResumoRepositoryCustomImpl implements ProgressoResumoRepositoryCustom {
+
+    // O DO UPDATE que não muda nada existe só para o RETURNING trazer também as leituras que já existiam;
+    // com DO NOTHING elas precisariam de um SELECT a mais. xmax = 0 distingue a linha inserida da encontrada.
+    private static final String UPSERT_LEITURAS = """
+            INSERT INTO progresso_resumos_usuario (usuario_id, resumo_id, data_leitura)
+            SELECT ?, e.resumo_id, ?
+            FROM unnest(?::int[]) AS e(resumo_id)
+            JOIN resumos r ON r.id = e.resumo_id
+            ON CONFLICT (usuario_id, resumo_id) DO UPDATE SET data_leitura = progresso_resumos_usuario.data_leitura
+            RETURNING resumo_id, data_leitura, xmax = 0 AS nova
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProgressoResumoRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<LeituraResumo> gravarEmLote(int usuarioId, List<Integer> resumoIds, LocalDateTime quando) {
+        if (resumoIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(UPSERT_LEITURAS);
+            ps.setLong(1, usuarioId);
+            ps.setObject(2, quando);
+            ps.setArray(3, connection.createArrayOf("int", resumoIds.toArray()));
+            return ps;
+        }, (rs, linha) -> new LeituraResumo(rs.getInt(1), rs.getObject(2, LocalDateTime.class), rs.getBoolean(3)));
+    }
+}
@@ -1,12 +1,12 @@
 package com.backpack.bpweb.progresso.progressoResumo.service;
 
-import com.backpack.bpweb.chore.resumos.entity.Resumo;
-import com.backpack.bpweb.chore.resumos.repository.ResumoRepository;
 import com.backpack.bpweb.progresso.progressoResumo.DTOs.ProgressoResumoResponseDTO;
 import com.backpack.bpweb.progresso.progressoResumo.entity.ProgressoResumo;
 import com.backpack.bpweb.progresso.progressoResumo.repository.ProgressoResumoRepository;
+import com.backpack.bpweb.progresso.progressoResumo.repository.ProgressoResumoRepositoryCustom.LeituraResumo;
 import com.backpack.bpweb.user.entity.Usuarios;
-import com.backpack.bpweb.user.estatistica.DTOs.EstatisticasResumosUsuarioDTO;
+import com.backpack.bpweb.user.estatistica.repository.EstatisticasUsuarioRepository;
+import com.backpack.bpweb.user.estatistica.service.AtividadeDiariaService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.security.auth.message.AuthException;
 import jakarta.transaction.Transactional;
@@ -15,10 +15,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
+import java.time.ZoneId;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,7 +25,9 @@ public class ProgressoResumoService {
     @Autowired
     private ProgressoResumoRepository repository;
     @Autowired
-    private ResumoRepository resumoRepository;
+    private EstatisticasUsuarioRepository estatisticasUsuarioRepository;
+    @Autowired
+    private AtividadeDiariaService atividadeDiariaService;
 
     // Publico
     public List<ProgressoResumoResponseDTO> buscarProgressoDoUsuarioLogado() throws AuthException {
@@ -40,52 +40,43 @@ public class ProgressoResumoService {
     }
 
     @Transactional
-    public ProgressoResumoResponseDTO marcarProgresso(Integer resumoId) throws AuthException { // Removemos dataLeitura daqui
-        Usuarios usuarioLogado = getUsuarioLogado();
-        Resumo resumo = resumoRepository.findById(resumoId)
-                .orElseThrow(() -> new EntityNotFoundException("Resumo não encontrado com o id: " + resumoId));
-
-        Optional<ProgressoResumo> progressoExistente = repository.findByUsuarioAndResumo(usuarioLogado, resumo);
-
-        if (progressoExistente.isPresent()) {
-            ProgressoResumo progresso = progressoExistente.get();
-            return new ProgressoResumoResponseDTO(progresso.getResumo().getId(), progresso.getDataLeitura());
-        }
-
-        ProgressoResumo novoProgresso = new ProgressoResumo();
-        novoProgresso.setUsuario(usuarioLogado);
-        novoProgresso.setResumo(resumo);
-        novoProgresso.setDataLeitura(OffsetDateTime.now());
-
-        ProgressoResumo progressoSalvo = repository.save(novoProgresso);
-
-        return new ProgressoResumoResponseDTO(progressoSalvo.getResumo().getId(), progressoSalvo.getDataLeitura());
+    public ProgressoResumoResponseDTO marcarProgresso(Integer resumoId) throws AuthException {
+        return marcarProgressoEmLote(List.of(resumoId)).get(0);
     }
 
-    public EstatisticasResumosUsuarioDTO calcularEstatisticasDoUsuario() throws AuthException {
+    /**
+     * Marca vários resumos como lidos pelo usuário logado com um único upsert. Resumos já lidos
+     * mantêm a data da primeira leitura. É tudo ou nada: um resumo inexistente desfaz o lote.
+     *
+     * @throws EntityNotFoundException se algum resumo não existir
+     */
+    @Transactional
+    public List<ProgressoResumoResponseDTO> marcarProgressoEmLote(List<Integer> resumoIds) throws AuthException {
         Usuarios usuarioLogado = getUsuarioLogado();
+        List<Integer> distintos = new ArrayList<>(new LinkedHashSet<>(resumoIds));
 
-        long resumosCompletados = repository.countByUsuario(usuarioLogado);
-        long totalResumos = resumoRepository.count();
-        long resumosPendentes = Math.max(0, totalResumos - resumosCompletados);
+        OffsetDateTime agora = OffsetDateTime.now();
+        List<LeituraResumo> leituras = repository.gravarEmLote(usuarioLogado.getId(), distintos, agora.toLocalDateTime());
 
-        double mediaResumosPorDia = 0.0;
-        if (resumosCompletados > 0) {
-            List<ProgressoResumo> progressosConcluidos = repository.findByUsuario(usuarioLogado);
-
-            OffsetDateTime primeiraLeitura = progressosConcluidos.stream()
-                    .min(Comparator.comparing(ProgressoResumo::getDataLeitura))
-                    .get().getDataLeitura();
-
-            OffsetDateTime ultimaLeitura = progressosConcluidos.stream()
-                    .max(Comparator.comparing(ProgressoResumo::getDataLeitura))
-                    .get().getDataLeitura();
+        if (leituras.size() < distintos.size()) {
+            Set<Integer> faltando = new TreeSet<>(distintos);
+            leituras.forEach(leitura -> faltando.remove(leitura.resumoId()));
+            throw new EntityNotFoundException("Resumo não encontrado com o id: " + faltando.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
 
-            long diasDeAtividade = ChronoUnit.DAYS.between(primeiraLeitura, ultimaLeitura) + 1;
-            mediaResumosPorDia = (double) resumosCompletados / diasDeAtividade;
+        int novas = (int) leituras.stream().filter(LeituraResumo::nova).count();
+        if (novas > 0) {
+            estatisticasUsuarioRepository.registrarResumosLidos(usuarioLogado.getId(), novas, agora);
+            atividadeDiariaService.registrarResumos(usuarioLogado.getId(), agora, novas);
         }
 
-        return new EstatisticasResumosUsuarioDTO(resumosCompletados, resumosPendentes, totalResumos, mediaResumosPorDia);
+        // A coluna não tem fuso: a data é lida no fuso da aplicação, como faz o Hibernate na entidade.
+        Map<Integer, OffsetDateTime> dataPorResumo = new HashMap<>();
+        leituras.forEach(leitura -> dataPorResumo.put(leitura.resumoId(),
+                leitura.dataLeitura().atZone(ZoneId.systemDefault()).toOffsetDateTime()));
+        return distintos.stream()
+                .map(resumoId -> new ProgressoResumoResponseDTO(resumoId, dataPorResumo.get(resumoId)))
+                .toList();
     }
 
     private Usuarios getUsuarioLogado() throws AuthException {
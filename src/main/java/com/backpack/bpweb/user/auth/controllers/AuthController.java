@@ -4,9 +4,9 @@ import com.backpack.bpweb.user.DTOs.EmailDTO;
 import com.backpack.bpweb.user.auth.dtos.LoginRequestDTO;
 import com.backpack.bpweb.user.DTOs.UsuarioCreateDTO;
 import com.backpack.bpweb.infra.security.TokenService;
+import com.backpack.bpweb.user.DTOs.UsuarioResponseDTO;
 import com.backpack.bpweb.user.entity.Usuarios;
 import com.backpack.bpweb.user.repositories.UsuariosRepository;
-import com.backpack.bpweb.user.service.EmailSenderService;
 import com.backpack.bpweb.user.service.UsuarioService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -18,7 +18,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.Cookie;
 
@@ -38,7 +38,7 @@ public class AuthController {
     @Autowired
     private UsuarioService usuarioService;
     @Autowired
-    private EmailSenderService emailService;
+    private PasswordEncoder passwordEncoder;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody @Valid LoginRequestDTO data) {
@@ -68,8 +68,9 @@ public class AuthController {
             return ResponseEntity.status(401).body("Não autorizado");
         }
 
+        // O principal já tem nome, email e idade (do token ou do cache de principais).
         var usuario = (Usuarios) auth.getPrincipal();
-        var usuarioDTO = repository.findByEmailToDTO(usuario.getEmail());
+        var usuarioDTO = new UsuarioResponseDTO(usuario.getNomeCompleto(), usuario.getEmail(), usuario.getIdade());
         return ResponseEntity.ok(usuarioDTO);
     }
 
@@ -79,7 +80,7 @@ public class AuthController {
             return ResponseEntity.badRequest().body(Map.of("message", "Email já está em uso."));
         }
 
-        String encryptedPassword = new BCryptPasswordEncoder().encode(data.senha());
+        String encryptedPassword = passwordEncoder.encode(data.senha());
 
         Usuarios newUser = new Usuarios();
 
@@ -99,18 +100,12 @@ public class AuthController {
     public ResponseEntity<?> forgotPassword(@RequestBody @Valid EmailDTO requestEmail) {
         String email = requestEmail.email();
         String newPassword = usuarioService.generatePassword(10);
-        String encryptedPassword = new BCryptPasswordEncoder().encode(newPassword);
+        String encryptedPassword = passwordEncoder.encode(newPassword);
 
-        Usuarios usuario = repository.findByEmail(email);
-
-        if (usuario == null) {
+        if (!usuarioService.redefinirSenha(email, newPassword, encryptedPassword)) {
             return ResponseEntity.badRequest().body("Usuário não encontrado para o email informado.");
         }
 
-        usuario.setSenha(encryptedPassword);
-        repository.save(usuario);
-
-        emailService.sendNewPasswordEmail(usuario, newPassword);
         return ResponseEntity.ok().body("Nova senha gerada com sucesso.");
     }
 
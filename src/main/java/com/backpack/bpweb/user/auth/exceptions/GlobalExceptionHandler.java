@@ -1,6 +1,8 @@
 package com.backpack.bpweb.user.auth.exceptions;
 
+import com.backpack.bpweb.infra.security.SenhaIndisponivelException;
 import com.backpack.bpweb.user.auth.dtos.ResponseErrorDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -39,6 +41,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(SenhaIndisponivelException.class)
+    public ResponseEntity<ResponseErrorDTO> handleSenhaIndisponivelException(SenhaIndisponivelException ex, WebRequest request) {
+        ResponseErrorDTO errorResponse = new ResponseErrorDTO();
+        errorResponse.setTimestamp(Instant.now());
+        errorResponse.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setError("Service Unavailable");
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseErrorDTO> handleGlobalException(Exception ex, WebRequest request) {
 
@@ -30,6 +30,7 @@ public class Usuarios implements UserDetails {
     private String senha;
     private OffsetDateTime dataCriacao;
     private OffsetDateTime dataAtualizacao;
+    private int versaoToken;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,11 @@
+package com.backpack.bpweb.user.estatistica.DTOs;
+
+import java.time.LocalDate;
+
+public record AtividadeDiariaDTO(
+        LocalDate dia,
+        int aulas,
+        int resumos,
+        int simulados
+) {
+}
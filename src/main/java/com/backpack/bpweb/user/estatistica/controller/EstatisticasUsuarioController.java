@@ -1,39 +1,52 @@
 package com.backpack.bpweb.user.estatistica.controller;
 
-import com.backpack.bpweb.progresso.progressoAula.service.ProgressoAulaService;
-import com.backpack.bpweb.progresso.progressoResumo.service.ProgressoResumoService;
 import com.backpack.bpweb.user.DTOs.UsuarioResponseDTO;
 import com.backpack.bpweb.user.entity.Usuarios;
-import com.backpack.bpweb.user.estatistica.DTOs.EstatisticasAulasUsuarioDTO;
-import com.backpack.bpweb.user.estatistica.DTOs.EstatisticasResumosUsuarioDTO;
+import com.backpack.bpweb.user.estatistica.DTOs.AtividadeDiariaDTO;
 import com.backpack.bpweb.user.estatistica.DTOs.EstatisticasUsuarioDTO;
+import com.backpack.bpweb.user.estatistica.service.AtividadeDiariaService;
+import com.backpack.bpweb.user.estatistica.service.EstatisticasUsuarioService;
 import jakarta.security.auth.message.AuthException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/estatisticas")
 public class EstatisticasUsuarioController {
 
     @Autowired
-    private ProgressoAulaService progressoAulaService;
+    private EstatisticasUsuarioService estatisticasUsuarioService;
     @Autowired
-    private ProgressoResumoService progressoResumoService;
+    private AtividadeDiariaService atividadeDiariaService;
 
     @GetMapping("/meu-progresso")
     public ResponseEntity<EstatisticasUsuarioDTO> getEstatisticasUsuarioLogado() throws AuthException {
-        EstatisticasAulasUsuarioDTO estatisticas = progressoAulaService.calcularEstatisticasDoUsuario();
-        EstatisticasResumosUsuarioDTO estatisticasResumosUsuarioDTO = progressoResumoService.calcularEstatisticasDoUsuario();
         Usuarios usuarioLogado = getUsuarioLogado();
+        EstatisticasUsuarioService.Estatisticas estatisticas = estatisticasUsuarioService.calcular(usuarioLogado.getId());
         UsuarioResponseDTO usuarioResponseDTO = new UsuarioResponseDTO(usuarioLogado.getNomeCompleto(), usuarioLogado.getEmail(), usuarioLogado.getIdade());
-        EstatisticasUsuarioDTO estatisticasUsuarioDTO = new EstatisticasUsuarioDTO(usuarioResponseDTO, estatisticas, estatisticasResumosUsuarioDTO);
+        EstatisticasUsuarioDTO estatisticasUsuarioDTO = new EstatisticasUsuarioDTO(usuarioResponseDTO, estatisticas.aulas(), estatisticas.resumos());
         return ResponseEntity.ok(estatisticasUsuarioDTO);
     }
 
+    @GetMapping("/atividade")
+    public ResponseEntity<?> getAtividadeDiaria(@RequestParam(defaultValue = "365") int dias) throws AuthException {
+        Usuarios usuarioLogado = getUsuarioLogado();
+        try {
+            List<AtividadeDiariaDTO> atividade = atividadeDiariaService.buscar(usuarioLogado.getId(), dias);
+            return ResponseEntity.ok(atividade);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     private Usuarios getUsuarioLogado() throws AuthException {
         var auth = SecurityContextHolder.getContext().getAuthentication();
 
@@ -0,0 +1,38 @@
+package com.backpack.bpweb.user.estatistica.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Atividade de um usuário em um dia. Só é escrita pelas consultas de {@code AtividadeDiariaRepository}.
+ */
+@Entity(name = "atividade_diaria_usuario")
+@Table(name = "atividade_diaria_usuario")
+@IdClass(AtividadeDiariaUsuario.Chave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtividadeDiariaUsuario {
+
+    @Id
+    private int usuarioId;
+    @Id
+    private LocalDate dia;
+    private int aulas;
+    private int resumos;
+    private int simulados;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+        private int usuarioId;
+        private LocalDate dia;
+    }
+}
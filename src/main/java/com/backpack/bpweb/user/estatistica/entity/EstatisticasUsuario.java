@@ -0,0 +1,33 @@
+package com.backpack.bpweb.user.estatistica.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Contadores de progresso do usuário, mantidos pelo {@code marcarProgresso} de aulas e resumos.
+ * Só é escrita pelas consultas de {@code EstatisticasUsuarioRepository}, nunca por {@code save}.
+ */
+@Entity(name = "estatisticas_usuario")
+@Table(name = "estatisticas_usuario")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasUsuario {
+
+    @Id
+    private int usuarioId;
+    private int aulasConcluidas;
+    private OffsetDateTime primeiraAulaConcluida;
+    private OffsetDateTime ultimaAulaConcluida;
+    private int resumosLidos;
+    private OffsetDateTime primeiraLeituraResumo;
+    private OffsetDateTime ultimaLeituraResumo;
+}
@@ -0,0 +1,91 @@
+package com.backpack.bpweb.user.estatistica.repository;
+
+import com.backpack.bpweb.user.estatistica.entity.AtividadeDiariaUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AtividadeDiariaRepository extends JpaRepository<AtividadeDiariaUsuario, AtividadeDiariaUsuario.Chave> {
+
+    List<AtividadeDiariaUsuario> findByUsuarioIdAndDiaGreaterThanEqualOrderByDia(int usuarioId, LocalDate desde);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO atividade_diaria_usuario (usuario_id, dia, aulas, resumos, simulados)
+            VALUES (:usuarioId, :dia, :aulas, :resumos, :simulados)
+            ON CONFLICT (usuario_id, dia) DO UPDATE SET
+                aulas = atividade_diaria_usuario.aulas + EXCLUDED.aulas,
+                resumos = atividade_diaria_usuario.resumos + EXCLUDED.resumos,
+                simulados = atividade_diaria_usuario.simulados + EXCLUDED.simulados
+            """)
+    void registrar(@Param("usuarioId") int usuarioId, @Param("dia") LocalDate dia,
+                   @Param("aulas") int aulas, @Param("resumos") int resumos, @Param("simulados") int simulados);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO backfill_progresso (nome) VALUES ('atividade-diaria')
+            ON CONFLICT (nome) DO NOTHING
+            """)
+    void iniciarBackfill();
+
+    /**
+     * Último usuário já carregado, ou {@code null} se a carga terminou.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT ultimo_usuario_id FROM backfill_progresso
+            WHERE nome = 'atividade-diaria' AND concluido_em IS NULL
+            """)
+    Integer findUltimoUsuarioCarregado();
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE backfill_progresso SET ultimo_usuario_id = GREATEST(ultimo_usuario_id, :usuarioId)
+            WHERE nome = 'atividade-diaria'
+            """)
+    void registrarUsuarioCarregado(@Param("usuarioId") int usuarioId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE backfill_progresso SET concluido_em = NOW() WHERE nome = 'atividade-diaria'")
+    void concluirBackfill();
+
+    @Query(nativeQuery = true, value = "SELECT COALESCE(MAX(id), 0) FROM usuarios")
+    int findMaiorUsuarioId();
+
+    /**
+     * Carrega o histórico dos usuários com id entre {@code de} e {@code ate}. Cada registro de progresso só
+     * guarda a última data, então o histórico reconstruído é no máximo o que o contador incremental teria;
+     * o {@code GREATEST} faz a carga nunca reduzir um dia já contado e poder ser repetida sem duplicar.
+     * As colunas de progresso são {@code TIMESTAMP} sem fuso, gravadas no fuso da aplicação
+     * ({@code fusoGravacao}); todas as datas são levadas ao {@code fuso} das estatísticas antes de virar dia,
+     * como no registro feito a cada escrita.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO atividade_diaria_usuario (usuario_id, dia, aulas, resumos, simulados)
+            SELECT usuario_id, dia, SUM(aulas), SUM(resumos), SUM(simulados)
+            FROM (
+                SELECT CAST(usuario_id AS INTEGER) AS usuario_id, CAST((data_visualizacao AT TIME ZONE :fusoGravacao) AT TIME ZONE :fuso AS DATE) AS dia, 1 AS aulas, 0 AS resumos, 0 AS simulados
+                FROM progresso_aulas_usuario
+                WHERE usuario_id BETWEEN :de AND :ate AND data_visualizacao IS NOT NULL
+                UNION ALL
+                SELECT CAST(usuario_id AS INTEGER), CAST((data_leitura AT TIME ZONE :fusoGravacao) AT TIME ZONE :fuso AS DATE), 0, 1, 0
+                FROM progresso_resumos_usuario
+                WHERE usuario_id BETWEEN :de AND :ate AND data_leitura IS NOT NULL
+                UNION ALL
+                SELECT CAST(usuario_id AS INTEGER), CAST(data_fim AT TIME ZONE :fuso AS DATE), 0, 0, 1
+                FROM tentativas_simulado
+                WHERE usuario_id BETWEEN :de AND :ate AND data_fim IS NOT NULL
+            ) atividades
+            GROUP BY usuario_id, dia
+            ON CONFLICT (usuario_id, dia) DO UPDATE SET
+                aulas = GREATEST(atividade_diaria_usuario.aulas, EXCLUDED.aulas),
+                resumos = GREATEST(atividade_diaria_usuario.resumos, EXCLUDED.resumos),
+                simulados = GREATEST(atividade_diaria_usuario.simulados, EXCLUDED.simulados)
+            """)
+    void carregarHistorico(@Param("de") int de, @Param("ate") int ate,
+                           @Param("fusoGravacao") String fusoGravacao, @Param("fuso") String fuso);
+}
@@ -0,0 +1,84 @@
+package com.backpack.bpweb.user.estatistica.repository;
+
+import com.backpack.bpweb.user.estatistica.entity.EstatisticasUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * As alterações são {@code UPDATE}s atômicos no banco: duas requisições do mesmo usuário
+ * ao mesmo tempo não perdem incrementos. {@code LEAST}/{@code GREATEST} ignoram {@code NULL}.
+ */
+public interface EstatisticasUsuarioRepository extends JpaRepository<EstatisticasUsuario, Integer> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO estatisticas_usuario (usuario_id, aulas_concluidas, primeira_aula_concluida, ultima_aula_concluida)
+            VALUES (:usuarioId, :incremento, CAST(:data AS TIMESTAMPTZ), CAST(:data AS TIMESTAMPTZ))
+            ON CONFLICT (usuario_id) DO UPDATE SET
+                aulas_concluidas = estatisticas_usuario.aulas_concluidas + :incremento,
+                primeira_aula_concluida = LEAST(estatisticas_usuario.primeira_aula_concluida, CAST(:data AS TIMESTAMPTZ)),
+                ultima_aula_concluida = GREATEST(estatisticas_usuario.ultima_aula_concluida, CAST(:data AS TIMESTAMPTZ))
+            """)
+    void registrarAulaConcluida(@Param("usuarioId") int usuarioId, @Param("incremento") int incremento, @Param("data") OffsetDateTime data);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE estatisticas_usuario SET aulas_concluidas = GREATEST(aulas_concluidas - :quantidade, 0)
+            WHERE usuario_id = :usuarioId
+            """)
+    void removerAulasConcluidas(@Param("usuarioId") int usuarioId, @Param("quantidade") int quantidade);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO estatisticas_usuario (usuario_id, resumos_lidos, primeira_leitura_resumo, ultima_leitura_resumo)
+            VALUES (:usuarioId, :quantidade, CAST(:data AS TIMESTAMPTZ), CAST(:data AS TIMESTAMPTZ))
+            ON CONFLICT (usuario_id) DO UPDATE SET
+                resumos_lidos = estatisticas_usuario.resumos_lidos + :quantidade,
+                primeira_leitura_resumo = LEAST(estatisticas_usuario.primeira_leitura_resumo, CAST(:data AS TIMESTAMPTZ)),
+                ultima_leitura_resumo = GREATEST(estatisticas_usuario.ultima_leitura_resumo, CAST(:data AS TIMESTAMPTZ))
+            """)
+    void registrarResumosLidos(@Param("usuarioId") int usuarioId, @Param("quantidade") int quantidade, @Param("data") OffsetDateTime data);
+
+    @Query(nativeQuery = true, value = "SELECT DISTINCT CAST(usuario_id AS INTEGER) FROM progresso_aulas_usuario WHERE aula_id = :aulaId")
+    List<Integer> findUsuariosComProgressoNaAula(@Param("aulaId") int aulaId);
+
+    @Query(nativeQuery = true, value = "SELECT DISTINCT CAST(usuario_id AS INTEGER) FROM progresso_resumos_usuario WHERE resumo_id = :resumoId")
+    List<Integer> findUsuariosComProgressoNoResumo(@Param("resumoId") int resumoId);
+
+    /**
+     * Recalcula os contadores dos usuários informados. Usado quando o histórico muda por fora
+     * do {@code marcarProgresso}, como na exclusão de uma aula ou resumo. As datas de primeira e
+     * última atividade de uma linha existente ficam como estão: a atividade aconteceu, mesmo que o
+     * conteúdo tenha saído do catálogo. Só uma linha nova recebe as datas do histórico, convertidas
+     * de {@code fusoGravacao} como em {@link AtividadeDiariaRepository#carregarHistorico}.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO estatisticas_usuario (usuario_id, aulas_concluidas, primeira_aula_concluida, ultima_aula_concluida,
+                                              resumos_lidos, primeira_leitura_resumo, ultima_leitura_resumo)
+            SELECT u.id, COALESCE(a.total, 0), a.primeira, a.ultima, COALESCE(r.total, 0), r.primeira, r.ultima
+            FROM usuarios u
+            LEFT JOIN (SELECT p.usuario_id, COUNT(*) AS total, MIN(p.data_visualizacao) AT TIME ZONE :fusoGravacao AS primeira,
+                              MAX(p.data_visualizacao) AT TIME ZONE :fusoGravacao AS ultima
+                       FROM progresso_aulas_usuario p
+                       JOIN status_progresso_aula s ON s.id = p.status_id
+                       WHERE s.nome = 'CONCLUIDO' AND p.usuario_id IN (:usuarioIds)
+                       GROUP BY p.usuario_id) a ON a.usuario_id = u.id
+            LEFT JOIN (SELECT usuario_id, COUNT(*) AS total, MIN(data_leitura) AT TIME ZONE :fusoGravacao AS primeira,
+                              MAX(data_leitura) AT TIME ZONE :fusoGravacao AS ultima
+                       FROM progresso_resumos_usuario
+                       WHERE usuario_id IN (:usuarioIds)
+                       GROUP BY usuario_id) r ON r.usuario_id = u.id
+            WHERE u.id IN (:usuarioIds)
+            ON CONFLICT (usuario_id) DO UPDATE SET
+                aulas_concluidas = EXCLUDED.aulas_concluidas,
+                resumos_lidos = EXCLUDED.resumos_lidos
+            """)
+    void recalcular(@Param("usuarioIds") Collection<Integer> usuarioIds, @Param("fusoGravacao") String fusoGravacao);
+}
@@ -0,0 +1,62 @@
+package com.backpack.bpweb.user.estatistica.service;
+
+import com.backpack.bpweb.user.estatistica.DTOs.AtividadeDiariaDTO;
+import com.backpack.bpweb.user.estatistica.repository.AtividadeDiariaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Mapa de atividade diária do usuário. Os serviços de progresso e de simulado registram cada
+ * atividade na transação da própria escrita; a leitura traz no máximo uma linha por dia.
+ * O dia é o do fuso configurado, não o do servidor.
+ */
+@Service
+public class AtividadeDiariaService {
+
+    public static final int MAXIMO_DIAS = 365;
+
+    private final AtividadeDiariaRepository repository;
+    private final ZoneId fuso;
+
+    public AtividadeDiariaService(AtividadeDiariaRepository repository,
+                                  @Value("${estatisticas.atividade.fuso:America/Sao_Paulo}") String fuso) {
+        this.repository = repository;
+        this.fuso = ZoneId.of(fuso);
+    }
+
+    public void registrarAulas(int usuarioId, OffsetDateTime quando, int quantidade) {
+        repository.registrar(usuarioId, dia(quando), quantidade, 0, 0);
+    }
+
+    public void registrarResumos(int usuarioId, OffsetDateTime quando, int quantidade) {
+        repository.registrar(usuarioId, dia(quando), 0, quantidade, 0);
+    }
+
+    public void registrarSimulado(int usuarioId, OffsetDateTime quando) {
+        repository.registrar(usuarioId, dia(quando), 0, 0, 1);
+    }
+
+    /**
+     * Dias com atividade nos últimos {@code dias} dias, incluindo hoje, em ordem crescente.
+     *
+     * @throws IllegalArgumentException se {@code dias} estiver fora de 1..365
+     */
+    public List<AtividadeDiariaDTO> buscar(int usuarioId, int dias) {
+        if (dias < 1 || dias > MAXIMO_DIAS) {
+            throw new IllegalArgumentException("O período deve ter entre 1 e " + MAXIMO_DIAS + " dias.");
+        }
+        LocalDate desde = LocalDate.now(fuso).minusDays(dias - 1L);
+        return repository.findByUsuarioIdAndDiaGreaterThanEqualOrderByDia(usuarioId, desde).stream()
+                .map(a -> new AtividadeDiariaDTO(a.getDia(), a.getAulas(), a.getResumos(), a.getSimulados()))
+                .toList();
+    }
+
+    private LocalDate dia(OffsetDateTime quando) {
+        return quando.atZoneSameInstant(fuso).toLocalDate();
+    }
+}
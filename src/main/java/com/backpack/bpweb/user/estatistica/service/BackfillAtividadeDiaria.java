@@ -0,0 +1,75 @@
+package com.backpack.bpweb.user.estatistica.service;
+
+import com.backpack.bpweb.user.estatistica.repository.AtividadeDiariaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+
+/**
+ * Carrega {@code atividade_diaria_usuario} a partir do histórico de progresso e simulados.
+ * Roda em faixas de ids de usuário, cada uma na sua transação junto com o registro do último
+ * usuário carregado em {@code backfill_progresso}: se a aplicação cair no meio, a próxima subida
+ * retoma da faixa seguinte. Depois de concluída não roda mais. Repetir uma faixa não duplica contagens.
+ */
+@Component
+public class BackfillAtividadeDiaria {
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillAtividadeDiaria.class);
+
+    private final AtividadeDiariaRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final int tamanhoFaixa;
+    private final String fuso;
+
+    public BackfillAtividadeDiaria(AtividadeDiariaRepository repository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${estatisticas.atividade.backfill.habilitado:true}") boolean habilitado,
+                                   @Value("${estatisticas.atividade.backfill.tamanho-faixa:500}") int tamanhoFaixa,
+                                   @Value("${estatisticas.atividade.fuso:America/Sao_Paulo}") String fuso) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.tamanhoFaixa = tamanhoFaixa;
+        this.fuso = fuso;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaPrimeiraSubida() {
+        if (!habilitado) {
+            return;
+        }
+        carregar();
+    }
+
+    public void carregar() {
+        transactionTemplate.executeWithoutResult(status -> repository.iniciarBackfill());
+        Integer ultimoCarregado = repository.findUltimoUsuarioCarregado();
+        if (ultimoCarregado == null) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        // As colunas de progresso foram gravadas pelo Hibernate no fuso da JVM.
+        String fusoGravacao = ZoneId.systemDefault().getId();
+        int maiorId = repository.findMaiorUsuarioId();
+        for (int de = ultimoCarregado + 1; de <= maiorId; de += tamanhoFaixa) {
+            int ate = Math.min(maiorId, de + tamanhoFaixa - 1);
+            int faixaInicio = de;
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.carregarHistorico(faixaInicio, ate, fusoGravacao, fuso);
+                repository.registrarUsuarioCarregado(ate);
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> repository.concluirBackfill());
+        log.info("Atividade diária carregada do usuário {} ao {} em {} ms", ultimoCarregado + 1, maiorId, System.currentTimeMillis() - inicio);
+    }
+}
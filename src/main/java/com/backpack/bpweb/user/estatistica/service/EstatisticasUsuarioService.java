@@ -0,0 +1,55 @@
+package com.backpack.bpweb.user.estatistica.service;
+
+import com.backpack.bpweb.user.estatistica.DTOs.EstatisticasAulasUsuarioDTO;
+import com.backpack.bpweb.user.estatistica.DTOs.EstatisticasResumosUsuarioDTO;
+import com.backpack.bpweb.user.estatistica.entity.EstatisticasUsuario;
+import com.backpack.bpweb.user.estatistica.repository.EstatisticasUsuarioRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Estatísticas do painel do usuário, lidas da linha de {@code estatisticas_usuario}
+ * e dos totais do catálogo em cache: uma leitura por chave primária, qualquer que seja o histórico.
+ */
+@Service
+public class EstatisticasUsuarioService {
+
+    private final EstatisticasUsuarioRepository repository;
+    private final TotaisCatalogo totaisCatalogo;
+
+    public EstatisticasUsuarioService(EstatisticasUsuarioRepository repository, TotaisCatalogo totaisCatalogo) {
+        this.repository = repository;
+        this.totaisCatalogo = totaisCatalogo;
+    }
+
+    public Estatisticas calcular(int usuarioId) {
+        // Usuário sem nenhum progresso ainda não tem linha.
+        EstatisticasUsuario estatisticas = repository.findById(usuarioId)
+                .orElseGet(() -> new EstatisticasUsuario(usuarioId, 0, null, null, 0, null, null));
+
+        long aulasVistas = estatisticas.getAulasConcluidas();
+        long totalAulas = totaisCatalogo.totalAulas();
+        EstatisticasAulasUsuarioDTO aulas = new EstatisticasAulasUsuarioDTO(aulasVistas, Math.max(0, totalAulas - aulasVistas), totalAulas,
+                mediaPorDia(aulasVistas, estatisticas.getPrimeiraAulaConcluida(), estatisticas.getUltimaAulaConcluida()));
+
+        long resumosLidos = estatisticas.getResumosLidos();
+        long totalResumos = totaisCatalogo.totalResumos();
+        EstatisticasResumosUsuarioDTO resumos = new EstatisticasResumosUsuarioDTO(resumosLidos, Math.max(0, totalResumos - resumosLidos), totalResumos,
+                mediaPorDia(resumosLidos, estatisticas.getPrimeiraLeituraResumo(), estatisticas.getUltimaLeituraResumo()));
+
+        return new Estatisticas(aulas, resumos);
+    }
+
+    private static double mediaPorDia(long total, OffsetDateTime primeira, OffsetDateTime ultima) {
+        if (total <= 0 || primeira == null || ultima == null) {
+            return 0.0;
+        }
+        long diasDeAtividade = ChronoUnit.DAYS.between(primeira, ultima) + 1;
+        return (double) total / diasDeAtividade;
+    }
+
+    public record Estatisticas(EstatisticasAulasUsuarioDTO aulas, EstatisticasResumosUsuarioDTO resumos) {
+    }
+}
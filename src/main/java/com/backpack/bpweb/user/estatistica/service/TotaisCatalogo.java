@@ -0,0 +1,49 @@
+package com.backpack.bpweb.user.estatistica.service;
+
+import com.backpack.bpweb.chore.aulas.repository.AulaRepository;
+import com.backpack.bpweb.chore.resumos.repository.ResumoRepository;
+import com.backpack.bpweb.infra.cache.CacheConfiguration;
+import com.backpack.bpweb.infra.transaction.TransactionHooks;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Total de aulas e de resumos do catálogo, guardado no cache {@link CacheConfiguration#TOTAIS_CATALOGO}
+ * para que as estatísticas do usuário não façam um {@code count()} da tabela inteira a cada requisição.
+ * Os serviços de aulas e resumos descartam o total ao criar ou excluir.
+ */
+@Component
+public class TotaisCatalogo {
+
+    private static final String AULAS = "aulas";
+    private static final String RESUMOS = "resumos";
+
+    private final AulaRepository aulaRepository;
+    private final ResumoRepository resumoRepository;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+
+    public TotaisCatalogo(AulaRepository aulaRepository, ResumoRepository resumoRepository, CacheManager cacheManager) {
+        this.aulaRepository = aulaRepository;
+        this.resumoRepository = resumoRepository;
+        this.cache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.TOTAIS_CATALOGO))).getNativeCache();
+    }
+
+    public long totalAulas() {
+        return (Long) cache.get(AULAS, chave -> aulaRepository.count());
+    }
+
+    public long totalResumos() {
+        return (Long) cache.get(RESUMOS, chave -> resumoRepository.count());
+    }
+
+    public void invalidarAulas() {
+        TransactionHooks.afterCommit(() -> cache.invalidate(AULAS));
+    }
+
+    public void invalidarResumos() {
+        TransactionHooks.afterCommit(() -> cache.invalidate(RESUMOS));
+    }
+}
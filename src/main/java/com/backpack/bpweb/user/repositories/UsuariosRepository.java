@@ -16,4 +16,7 @@ public interface UsuariosRepository extends JpaRepository<Usuarios, Integer> {
 
     @Query("SELECT new com.backpack.bpweb.user.DTOs.UsuarioResponseDTO(u.nomeCompleto, u.email, u.idade) FROM usuarios u WHERE u.id = :id")
     Optional<UsuarioResponseDTO> findByIdToDTO(@Param("id") Integer id);
+
+    @Query("SELECT u.versaoToken FROM usuarios u WHERE u.id = :id")
+    Optional<Integer> findVersaoTokenById(@Param("id") Integer id);
 }
@@ -1,52 +1,26 @@
 package com.backpack.bpweb.user.service;
 
+import com.backpack.bpweb.infra.email.EmailOutbox;
+import com.backpack.bpweb.infra.email.EmailOutboxRepository;
+import com.backpack.bpweb.infra.email.TemplateEmail;
 import com.backpack.bpweb.user.entity.Usuarios;
-import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Stream;
+import java.time.OffsetDateTime;
+import java.util.Map;
 
+/**
+ * Os emails não são enviados aqui: entram no outbox na transação de quem chamou
+ * e são enviados pelo {@link com.backpack.bpweb.infra.email.EmailOutboxDispatcher}.
+ * Se a transação for desfeita, o email também é.
+ */
 @Service
 public class EmailSenderService {
 
-    @Autowired
-    private JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String senderEmail;
-
-    @Async
-    public void sendNewPasswordEmail(Usuarios usuarios, String newPassword) {
-        try {
-            String emailUsuario = usuarios.getEmail();
-            String senhaUsuario = newPassword;
-
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-
-            helper.setFrom(senderEmail);
-            helper.setTo(emailUsuario);
-            helper.setSubject("Nova senha gerada - backpack");
-
-            String htmlBody = buildNewPasswordEmailBody(emailUsuario, senhaUsuario);
-            helper.setText(htmlBody, true);
-
-            mailSender.send(mimeMessage);
-
-        } catch (Exception e) {
-            e.getStackTrace();
-        }
-    }
-
-    private String buildNewPasswordEmailBody(String nomeUsuario, String novaSenha) {
-        String template = """
+    private static final TemplateEmail NOVA_SENHA = TemplateEmail.compilar("""
         <style>
           body { font-family: Arial, sans-serif; background-color: #f4f7fa; padding: 30px; color: #333; }
           .container { background-color: #ffffff; padding: 25px; border-radius: 8px; box-shadow: 0px 0px 5px rgba(0,0,0,0.1); max-width: 600px; margin: 0 auto; }
@@ -74,11 +48,23 @@ public class EmailSenderService {
             </div>
           </div>
         </div>
-        """;
+        """);
 
-        return template
-                .replace("{NOME_USUARIO}", nomeUsuario)
-                .replace("{NOVA_SENHA}", novaSenha);
-    }
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendNewPasswordEmail(Usuarios usuarios, String newPassword) {
+        String htmlBody = NOVA_SENHA.renderizar(Map.of(
+                "NOME_USUARIO", usuarios.getEmail(),
+                "NOVA_SENHA", newPassword));
 
+        EmailOutbox email = new EmailOutbox();
+        email.setDestinatario(usuarios.getEmail());
+        email.setAssunto("Nova senha gerada - backpack");
+        email.setCorpo(htmlBody);
+        email.setProximaTentativa(OffsetDateTime.now());
+        email.setDataCriacao(OffsetDateTime.now());
+        emailOutboxRepository.save(email);
+    }
 }
@@ -1,11 +1,15 @@
 package com.backpack.bpweb.user.service;
 
+import com.backpack.bpweb.infra.security.PrincipalCache;
+import com.backpack.bpweb.infra.security.VersaoTokenCache;
 import com.backpack.bpweb.user.DTOs.UsuarioResponseDTO;
+import com.backpack.bpweb.user.entity.Usuarios;
 import com.backpack.bpweb.user.repositories.UsuariosRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Random;
 
@@ -14,6 +18,12 @@ public class UsuarioService {
 
     @Autowired
     UsuariosRepository repository;
+    @Autowired
+    EmailSenderService emailService;
+    @Autowired
+    PrincipalCache principalCache;
+    @Autowired
+    VersaoTokenCache versaoTokenCache;
 
     public UsuarioResponseDTO getUsuarioByEmail(String email) {
         return repository.findByEmailToDTO(email)
@@ -25,6 +35,30 @@ public class UsuarioService {
                 .orElseThrow(() -> new EntityNotFoundException("Usuario não encontrado com o id: " + id));
     }
 
+    /**
+     * Grava a nova senha e enfileira o email com ela na mesma transação: ou os dois acontecem, ou nenhum.
+     * A senha chega já criptografada para o BCrypt não rodar com a transação aberta.
+     *
+     * @return {@code false} se não houver usuário com o email informado
+     */
+    @Transactional
+    public boolean redefinirSenha(String email, String novaSenha, String senhaCriptografada) {
+        Usuarios usuario = repository.findByEmail(email);
+        if (usuario == null) {
+            return false;
+        }
+
+        usuario.setSenha(senhaCriptografada);
+        // A nova senha revoga os tokens com claims emitidos antes dela.
+        usuario.setVersaoToken(usuario.getVersaoToken() + 1);
+        repository.save(usuario);
+        principalCache.invalidar(email);
+        versaoTokenCache.atualizar(usuario.getId(), usuario.getVersaoToken());
+
+        emailService.sendNewPasswordEmail(usuario, novaSenha);
+        return true;
+    }
+
     public String generatePassword(int tamanho) {
         String caracteres = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
         Random random = new Random();
@@ -0,0 +1,63 @@
+package db.migration;
+
+import com.backpack.bpweb.chore.simulado.bancoQuestoes.alternativas.entity.HashAfirmativa;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Recalcula {@code alternativas.hash_afirmativa} com {@link HashAfirmativa}, o mesmo código das inserções.
+ * O backfill da V5 usava o {@code lower()} do Postgres, que depende da collation do banco: com C/POSIX
+ * só as letras ASCII viram minúsculas, e "É" ou "Ç" geravam um hash que o Java nunca reproduz.
+ *
+ * <p>Duplicatas continuam como na V5: a alternativa mais antiga fica com o hash e as outras ficam com
+ * NULL, que não conflita no índice único. Elas seguem nos simulados e no histórico de respostas, e o
+ * serviço permite editá-las desde que o texto continue igual ao da gêmea (ver {@code AlternativasService}).</p>
+ */
+public class V13__Recalcular_hash_afirmativa extends BaseJavaMigration {
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexao = context.getConnection();
+        try (Statement ddl = conexao.createStatement()) {
+            // Sem o índice durante o recálculo: a ordem das atualizações poderia colidir com hashes ainda antigos.
+            ddl.execute("DROP INDEX IF EXISTS ux_alternativas_hash_afirmativa");
+        }
+
+        try (Statement leitura = conexao.createStatement();
+             PreparedStatement escrita = conexao.prepareStatement("UPDATE alternativas SET hash_afirmativa = ? WHERE id = ?")) {
+            leitura.setFetchSize(TAMANHO_LOTE);
+            try (ResultSet linhas = leitura.executeQuery("SELECT id, texto_afirmativa FROM alternativas WHERE texto_afirmativa IS NOT NULL")) {
+                int pendentes = 0;
+                while (linhas.next()) {
+                    escrita.setString(1, HashAfirmativa.calcular(linhas.getString(2)));
+                    escrita.setInt(2, linhas.getInt(1));
+                    escrita.addBatch();
+                    if (++pendentes == TAMANHO_LOTE) {
+                        escrita.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    escrita.executeBatch();
+                }
+            }
+        }
+
+        try (Statement ddl = conexao.createStatement()) {
+            ddl.execute("""
+                    UPDATE alternativas a
+                    SET hash_afirmativa = NULL
+                    FROM alternativas b
+                    WHERE a.hash_afirmativa = b.hash_afirmativa
+                      AND a.id > b.id""");
+            ddl.execute("CREATE UNIQUE INDEX ux_alternativas_hash_afirmativa ON alternativas (hash_afirmativa)");
+        }
+    }
+}
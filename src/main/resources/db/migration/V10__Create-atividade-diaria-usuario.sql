@@ -0,0 +1,12 @@
+-- FLYWAY SCRIPT V10 - ATIVIDADE DIÁRIA POR USUÁRIO
+-- Uma linha por usuário e dia com atividade, somando aulas, resumos e simulados.
+-- Mantida a cada escrita; o histórico anterior é carregado pelo BackfillAtividadeDiaria.
+
+CREATE TABLE IF NOT EXISTS atividade_diaria_usuario (
+    usuario_id INTEGER NOT NULL REFERENCES usuarios(id) ON DELETE CASCADE,
+    dia DATE NOT NULL,
+    aulas INTEGER NOT NULL DEFAULT 0,
+    resumos INTEGER NOT NULL DEFAULT 0,
+    simulados INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (usuario_id, dia)
+);
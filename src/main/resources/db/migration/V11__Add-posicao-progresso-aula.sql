@@ -0,0 +1,5 @@
+-- FLYWAY SCRIPT V11 - POSIÇÃO NO VÍDEO DA AULA
+-- Último ponto assistido, em segundos, comparável com aulas.duracao_segundos.
+-- Gravado em lote pelo PosicaoAulaBuffer a partir dos heartbeats do player.
+
+ALTER TABLE progresso_aulas_usuario ADD COLUMN IF NOT EXISTS posicao_segundos INTEGER NOT NULL DEFAULT 0;
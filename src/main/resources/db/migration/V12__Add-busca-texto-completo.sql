@@ -0,0 +1,29 @@
+-- FLYWAY SCRIPT V12 - BUSCA EM TEXTO COMPLETO
+-- Configuração portuguese_unaccent: radicais do português sem acentos ("função" e "funcoes" casam).
+-- Colunas tsvector geradas pelo próprio banco, com peso A para o título e B para o texto, e índice GIN.
+-- to_tsvector(regconfig, text) é IMMUTABLE, o que permite usá-la em coluna gerada; unaccent() sozinha não é.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'portuguese_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION portuguese_unaccent (COPY = portuguese);
+        ALTER TEXT SEARCH CONFIGURATION portuguese_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+    END IF;
+END
+$$;
+
+ALTER TABLE aulas ADD COLUMN IF NOT EXISTS busca TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('portuguese_unaccent', COALESCE(titulo, '')), 'A') ||
+    setweight(to_tsvector('portuguese_unaccent', COALESCE(descricao, '')), 'B')
+) STORED;
+
+ALTER TABLE resumos ADD COLUMN IF NOT EXISTS busca TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('portuguese_unaccent', COALESCE(titulo, '')), 'A') ||
+    setweight(to_tsvector('portuguese_unaccent', COALESCE(conteudo, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_aulas_busca ON aulas USING GIN (busca);
+CREATE INDEX IF NOT EXISTS idx_resumos_busca ON resumos USING GIN (busca);
@@ -0,0 +1,15 @@
+-- FLYWAY SCRIPT V14 - PROGRESSO DOS BACKFILLS
+-- Uma linha por carga: o último usuário já processado e quando terminou.
+-- Uma carga interrompida retoma do usuário seguinte em vez de recomeçar ou ser dada como feita.
+
+CREATE TABLE IF NOT EXISTS backfill_progresso (
+    nome VARCHAR(64) PRIMARY KEY,
+    ultimo_usuario_id INTEGER NOT NULL DEFAULT 0,
+    concluido_em TIMESTAMP WITH TIME ZONE
+);
+
+-- Antes desta versão a carga da atividade diária rodava inteira ou não rodava: tabela com linhas é carga feita.
+INSERT INTO backfill_progresso (nome, ultimo_usuario_id, concluido_em)
+SELECT 'atividade-diaria', COALESCE((SELECT MAX(id) FROM usuarios), 0), NOW()
+WHERE EXISTS (SELECT 1 FROM atividade_diaria_usuario)
+ON CONFLICT (nome) DO NOTHING;
@@ -0,0 +1,13 @@
+-- FLYWAY SCRIPT V15 - VERSÃO DO CATÁLOGO
+-- Uma única linha com a versão usada nos ETags e no cache de respostas do catálogo.
+-- Incrementada na mesma transação de cada escrita de administrador, então todas as instâncias
+-- enxergam a mesma versão. Começa no instante da migração para não repetir ETags de antes dela.
+
+CREATE TABLE IF NOT EXISTS catalogo_versao (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    versao BIGINT NOT NULL
+);
+
+INSERT INTO catalogo_versao (id, versao)
+VALUES (1, CAST(EXTRACT(EPOCH FROM NOW()) * 1000 AS BIGINT))
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,22 @@
+-- FLYWAY SCRIPT V5 - HASH DO TEXTO DAS ALTERNATIVAS
+-- A verificação de duplicidade passa a usar um hash SHA-256 (hex) do texto normalizado,
+-- protegido por índice único, em vez de comparar o TEXT inteiro sem índice.
+-- A normalização precisa ser idêntica à de HashAfirmativa (Java):
+-- espaços em branco ASCII viram um único espaço, as pontas são aparadas e o texto vai para minúsculas.
+
+ALTER TABLE alternativas ADD COLUMN IF NOT EXISTS hash_afirmativa CHAR(64);
+
+UPDATE alternativas
+SET hash_afirmativa = encode(sha256(convert_to(
+        lower(btrim(regexp_replace(texto_afirmativa, '[ \t\n\r\f\v]+', ' ', 'g'), ' ')),
+        'UTF8')), 'hex');
+
+-- Duplicatas que já existem no banco: a alternativa mais antiga fica com o hash,
+-- as demais ficam sem (NULL não conflita no índice único) e continuam funcionando nos simulados.
+UPDATE alternativas a
+SET hash_afirmativa = NULL
+FROM alternativas b
+WHERE a.hash_afirmativa = b.hash_afirmativa
+  AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_alternativas_hash_afirmativa ON alternativas (hash_afirmativa);
@@ -0,0 +1,8 @@
+-- FLYWAY SCRIPT V6 - TENTATIVAS CRIADAS NA SUBMISSÃO
+-- Com o descritor assinado, a tentativa só é gravada quando o simulado é submetido.
+-- O hash do descritor identifica a prova e o índice único impede submeter a mesma prova duas vezes.
+-- Tentativas criadas na geração (modo antigo) ficam com NULL, que não conflita no índice.
+
+ALTER TABLE tentativas_simulado ADD COLUMN IF NOT EXISTS descritor_hash CHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_tentativas_simulado_descritor_hash ON tentativas_simulado (descritor_hash);
@@ -0,0 +1,4 @@
+-- FLYWAY SCRIPT V7 - VERSÃO DO TOKEN POR USUÁRIO
+-- Tokens com claims carregam a versão vigente do usuário; incrementar a coluna revoga os tokens já emitidos.
+
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS versao_token INTEGER NOT NULL DEFAULT 0;
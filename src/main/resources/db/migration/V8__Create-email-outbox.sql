@@ -0,0 +1,18 @@
+-- FLYWAY SCRIPT V8 - OUTBOX DE EMAILS
+-- O email é gravado na mesma transação que o originou e enviado depois por um despachante agendado.
+-- Emails enviados são apagados; os que esgotam as tentativas ficam com falhou_em e sem corpo,
+-- porque o corpo pode conter uma senha.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    destinatario VARCHAR(255) NOT NULL,
+    assunto VARCHAR(255) NOT NULL,
+    corpo TEXT,
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    ultimo_erro TEXT,
+    falhou_em TIMESTAMP WITH TIME ZONE,
+    data_criacao TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS ix_email_outbox_pendentes ON email_outbox (proxima_tentativa) WHERE falhou_em IS NULL;
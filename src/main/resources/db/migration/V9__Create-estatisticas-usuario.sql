@@ -0,0 +1,32 @@
+-- FLYWAY SCRIPT V9 - ESTATÍSTICAS AGREGADAS POR USUÁRIO
+-- Uma linha por usuário, mantida a cada progresso marcado. O painel de estatísticas
+-- passa a ler só esta linha em vez de contar e carregar todo o histórico.
+
+CREATE TABLE IF NOT EXISTS estatisticas_usuario (
+    usuario_id INTEGER PRIMARY KEY REFERENCES usuarios(id) ON DELETE CASCADE,
+    aulas_concluidas INTEGER NOT NULL DEFAULT 0,
+    primeira_aula_concluida TIMESTAMP WITH TIME ZONE,
+    ultima_aula_concluida TIMESTAMP WITH TIME ZONE,
+    resumos_lidos INTEGER NOT NULL DEFAULT 0,
+    primeira_leitura_resumo TIMESTAMP WITH TIME ZONE,
+    ultima_leitura_resumo TIMESTAMP WITH TIME ZONE
+);
+
+-- Carga inicial a partir do histórico existente. data_visualizacao e data_leitura são TIMESTAMP sem fuso,
+-- gravados pelo Hibernate no fuso da JVM; o driver abre a sessão do Flyway nesse mesmo fuso, então a
+-- conversão usa o TimeZone da sessão de forma explícita, como o recalcular do repositório.
+INSERT INTO estatisticas_usuario (usuario_id, aulas_concluidas, primeira_aula_concluida, ultima_aula_concluida,
+                                  resumos_lidos, primeira_leitura_resumo, ultima_leitura_resumo)
+SELECT u.id, COALESCE(a.total, 0), a.primeira, a.ultima, COALESCE(r.total, 0), r.primeira, r.ultima
+FROM usuarios u
+LEFT JOIN (SELECT p.usuario_id, COUNT(*) AS total, MIN(p.data_visualizacao) AT TIME ZONE current_setting('TimeZone') AS primeira,
+                  MAX(p.data_visualizacao) AT TIME ZONE current_setting('TimeZone') AS ultima
+           FROM progresso_aulas_usuario p
+           JOIN status_progresso_aula s ON s.id = p.status_id
+           WHERE s.nome = 'CONCLUIDO'
+           GROUP BY p.usuario_id) a ON a.usuario_id = u.id
+LEFT JOIN (SELECT usuario_id, COUNT(*) AS total, MIN(data_leitura) AT TIME ZONE current_setting('TimeZone') AS primeira,
+                  MAX(data_leitura) AT TIME ZONE current_setting('TimeZone') AS ultima
+           FROM progresso_resumos_usuario
+           GROUP BY usuario_id) r ON r.usuario_id = u.id
+ON CONFLICT (usuario_id) DO NOTHING;
@@ -46,6 +46,7 @@ let currentFilters = {
 
 let estadoSimuladoAtivo = {
     tentativaId: null,
+    descritor: null, // Prova assinada pelo servidor quando a tentativa só é criada na submissão
     questoes: [],
     respostasUsuario: {}, // { topicoId: alternativaId }
     questaoAtual: 0,
@@ -433,6 +434,21 @@ async function fetchAulasPorMateria(materiaId) {
     }
 }
 
+/**
+ * Busca uma aula pelo ID, com a descrição completa (a listagem traz só um trecho).
+ * @param {string|number} aulaId - O ID da aula.
+ * @returns {Promise<Object|null>} A aula, ou null em caso de erro.
+ */
+async function fetchAulaPorId(aulaId) {
+    try {
+        const response = await fetch(`/api/v1/aulas/${aulaId}`, { credentials: 'include' });
+        if (!response.ok) throw new Error('Falha ao buscar a aula.');
+        return await response.json();
+    } catch (error) {
+        return null;
+    }
+}
+
 /**
  * Adiciona os 'escutadores' de evento para os botões de análise com IA,
  * com controle de modal moderno (animações e loader).
@@ -605,6 +621,7 @@ async function handleSimuladosStartPage() {
 
             estadoSimuladoAtivo = {
                 tentativaId: simuladoData.tentativaId,
+                descritor: simuladoData.descritor,
                 questoes: simuladoData.questoes,
                 respostasUsuario: {},
                 questaoAtual: 0,
@@ -712,6 +729,7 @@ function handleSimuladoActivePage() {
             try {
                 const submissao = {
                     tentativaId: estadoSimuladoAtivo.tentativaId,
+                    descritor: estadoSimuladoAtivo.descritor,
                     respostas: estadoSimuladoAtivo.respostasUsuario
                 };
                 const resultado = await submeterSimulado(submissao);
@@ -1272,6 +1290,28 @@ function attachAccordionListeners() {
     });
 }
 
+/**
+ * A listagem de aulas traz só um trecho da descrição. Ao abrir uma aula pela
+ * primeira vez, busca a descrição completa e substitui o trecho.
+ */
+function attachDescricaoCompletaListeners() {
+    document.querySelectorAll('#class-list .accordion-header').forEach(header => {
+        header.addEventListener('click', async function() {
+            const descricao = this.parentElement.querySelector('.aula-descricao[data-truncada]');
+            if (!descricao || !this.classList.contains('active')) return;
+
+            // Remove a marcação antes da requisição para não buscar a mesma aula duas vezes
+            descricao.removeAttribute('data-truncada');
+            const aula = await fetchAulaPorId(descricao.dataset.aulaId);
+            if (aula && aula.descricao) {
+                descricao.textContent = aula.descricao;
+            } else {
+                descricao.setAttribute('data-truncada', 'true');
+            }
+        });
+    });
+}
+
 /**
  * Adiciona um 'escutador' de evento de clique na lista de aulas para
  * gerenciar os botões de marcar progresso.
@@ -1527,11 +1567,11 @@ async function handleAulasPage() {
                     <div class="content-wrapper">
                         <div class="video-column">
                             <div class="video-player-wrapper">
-                                <iframe src="${embedUrl}" title="${aula.titulo}" frameborder="0" allow="accelerometer; autoplay; clipboard-write; encrypted-media; gyroscope; picture-in-picture" allowfullscreen></iframe>
+                                <iframe src="${embedUrl}${embedUrl.includes('?') ? '&' : '?'}enablejsapi=1" data-aula-id="${aula.id}" title="${aula.titulo}" frameborder="0" allow="accelerometer; autoplay; clipboard-write; encrypted-media; gyroscope; picture-in-picture" allowfullscreen></iframe>
                             </div>
                         </div>
                         <div class="details-column">
-                             <p class="aula-descricao">${aula.descricao}</p>
+                             <p class="aula-descricao" ${aula.descricaoTruncada ? `data-truncada="true" data-aula-id="${aula.id}"` : ''}>${aula.trecho ?? ''}${aula.descricaoTruncada ? '…' : ''}</p>
                              <button class="mark-as-watched-btn ${isConcluida ? 'concluida' : ''}" 
                                      data-aula-id="${aula.id}" 
                                      ${isConcluida ? 'disabled' : ''}>
@@ -1548,7 +1588,9 @@ async function handleAulasPage() {
 
         // 6. Chama as funções para ativar a interatividade dos novos elementos
         attachAccordionListeners();
+        attachDescricaoCompletaListeners();
         attachProgressButtonListeners();
+        attachPlayerHeartbeats();
     } else {
         classListContainer.innerHTML = `<p class="empty-message">Nenhuma aula encontrada para esta matéria.</p>`;
     }
@@ -1682,6 +1724,90 @@ function convertToEmbedUrl(url) {
     return url.replace('/watch?v=', '/embed/');
 }
 
+// Intervalo entre os heartbeats de posição enquanto o vídeo toca.
+const HEARTBEAT_INTERVALO_MS = 15000;
+
+/**
+ * Carrega a API de iframe do YouTube uma única vez.
+ * @returns {Promise<void>} - Resolvida quando {@code YT.Player} estiver disponível.
+ */
+function carregarApiYoutube() {
+    if (window.YT && window.YT.Player) return Promise.resolve();
+    if (!carregarApiYoutube.promessa) {
+        carregarApiYoutube.promessa = new Promise(resolve => {
+            window.onYouTubeIframeAPIReady = resolve;
+            const script = document.createElement('script');
+            script.src = 'https://www.youtube.com/iframe_api';
+            document.head.appendChild(script);
+        });
+    }
+    return carregarApiYoutube.promessa;
+}
+
+/**
+ * Envia a posição atual do vídeo. O servidor guarda só a última e grava em lote,
+ * então um heartbeat perdido não precisa ser reenviado.
+ * @param {number} aulaId - O ID da aula.
+ * @param {number} posicaoSegundos - A posição atual do player, em segundos.
+ */
+async function enviarPosicaoAula(aulaId, posicaoSegundos) {
+    try {
+        await fetch(`/api/v1/progresso/${aulaId}/posicao`, {
+            method: 'POST',
+            credentials: 'include',
+            keepalive: true,
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ posicaoSegundos: Math.floor(posicaoSegundos) })
+        });
+    } catch (error) {
+        // Ignorado: o próximo heartbeat leva a posição mais recente.
+    }
+}
+
+/**
+ * Liga os players da página aos heartbeats: envia a posição periodicamente enquanto
+ * o vídeo toca, ao pausar e ao terminar. Ao terminar, marca a aula como concluída.
+ */
+async function attachPlayerHeartbeats() {
+    const iframes = document.querySelectorAll('iframe[data-aula-id]');
+    if (iframes.length === 0) return;
+
+    await carregarApiYoutube();
+
+    iframes.forEach(iframe => {
+        const aulaId = iframe.dataset.aulaId;
+        let intervalo = null;
+
+        const player = new YT.Player(iframe, {
+            events: {
+                onStateChange: (event) => {
+                    clearInterval(intervalo);
+                    intervalo = null;
+
+                    if (event.data === YT.PlayerState.PLAYING) {
+                        intervalo = setInterval(() => {
+                            // A página pode ter mudado e levado o player junto.
+                            if (!iframe.isConnected) {
+                                clearInterval(intervalo);
+                                return;
+                            }
+                            enviarPosicaoAula(aulaId, player.getCurrentTime());
+                        }, HEARTBEAT_INTERVALO_MS);
+                    } else if (event.data === YT.PlayerState.PAUSED) {
+                        enviarPosicaoAula(aulaId, player.getCurrentTime());
+                    } else if (event.data === YT.PlayerState.ENDED) {
+                        enviarPosicaoAula(aulaId, player.getCurrentTime());
+                        const botao = document.querySelector(`.mark-as-watched-btn[data-aula-id="${aulaId}"]`);
+                        if (botao && !botao.disabled) botao.click();
+                    }
+                }
+            }
+        });
+    });
+}
+
 function convertSecondsToMinutes(secondes) {
     const minutes = Math.floor(secondes / 60);
     return minutes
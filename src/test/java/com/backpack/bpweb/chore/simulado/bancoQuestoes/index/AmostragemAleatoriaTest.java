@@ -0,0 +1,85 @@
+package com.backpack.bpweb.chore.simulado.bancoQuestoes.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmostragemAleatoriaTest {
+
+    private static final int TENTATIVAS = 200_000;
+    // Qui-quadrado crítico com p = 0,001 para 19 graus de liberdade.
+    private static final double QUI_QUADRADO_CRITICO_19GL = 43.82;
+
+    @Test
+    void sorteiaPosicoesDistintasDentroDoIntervalo() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            int[] sorteados = AmostragemAleatoria.sortearDistintos(50, 10, random);
+            Set<Integer> distintos = new HashSet<>();
+            for (int posicao : sorteados) {
+                assertTrue(posicao >= 0 && posicao < 50);
+                distintos.add(posicao);
+            }
+            assertEquals(10, distintos.size());
+        }
+    }
+
+    @Test
+    void cadaPosicaoTemAMesmaChanceDeSerSorteada() {
+        int n = 20;
+        int k = 5;
+        Random random = new Random(7);
+        long[] frequencias = new long[n];
+        for (int i = 0; i < TENTATIVAS; i++) {
+            for (int posicao : AmostragemAleatoria.sortearDistintos(n, k, random)) {
+                frequencias[posicao]++;
+            }
+        }
+
+        double esperado = (double) TENTATIVAS * k / n;
+        assertTrue(quiQuadrado(frequencias, esperado) < QUI_QUADRADO_CRITICO_19GL);
+    }
+
+    @Test
+    void primeiraPosicaoDevolvidaTambemEUniforme() {
+        // Sem o embaralhamento final, Floyd tende a devolver valores altos no fim do array.
+        int n = 20;
+        int k = 5;
+        Random random = new Random(11);
+        long[] frequencias = new long[n];
+        for (int i = 0; i < TENTATIVAS; i++) {
+            frequencias[AmostragemAleatoria.sortearDistintos(n, k, random)[0]]++;
+        }
+
+        double esperado = (double) TENTATIVAS / n;
+        assertTrue(quiQuadrado(frequencias, esperado) < QUI_QUADRADO_CRITICO_19GL);
+    }
+
+    @Test
+    void usaConjuntoAuxiliarQuandoSorteiaMuitasPosicoes() {
+        int[] sorteados = AmostragemAleatoria.sortearDistintos(1_000, 500, new Random(3));
+        Set<Integer> distintos = new HashSet<>();
+        for (int posicao : sorteados) {
+            distintos.add(posicao);
+        }
+        assertEquals(500, distintos.size());
+    }
+
+    @Test
+    void recusaSorteioMaiorQueOIntervalo() {
+        assertThrows(IllegalArgumentException.class, () -> AmostragemAleatoria.sortearDistintos(3, 4, new Random()));
+    }
+
+    private static double quiQuadrado(long[] observados, double esperado) {
+        double soma = 0;
+        for (long observado : observados) {
+            double diferenca = observado - esperado;
+            soma += diferenca * diferenca / esperado;
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,79 @@
+package com.backpack.bpweb.infra.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+
+    @Test
+    void enviaOLoteEApagaOsEnviados() throws Exception {
+        List<EmailOutbox> pendentes = List.of(pendente(1L, "a@bpweb.local"), pendente(2L, "b@bpweb.local"));
+        when(repository.reservarPendentes(anyInt())).thenReturn(pendentes);
+
+        int processados = dispatcher(ServerSetupTest.SMTP.getPort(), 8).despacharLote();
+
+        assertEquals(2, processados);
+        MimeMessage[] recebidas = greenMail.getReceivedMessages();
+        assertEquals(2, recebidas.length);
+        assertEquals("Nova senha gerada - backpack", recebidas[0].getSubject());
+        verify(repository).deleteAllInBatch(pendentes);
+    }
+
+    @Test
+    void falhaDeConexaoReagendaComBackoff() {
+        EmailOutbox email = pendente(1L, "a@bpweb.local");
+        when(repository.reservarPendentes(anyInt())).thenReturn(List.of(email));
+
+        // Porta sem servidor: a conexão é recusada.
+        dispatcher(ServerSetupTest.SMTP.getPort() + 1000, 8).despacharLote();
+
+        assertEquals(1, email.getTentativas());
+        assertNotNull(email.getUltimoErro());
+        assertTrue(email.getProximaTentativa().isAfter(OffsetDateTime.now()));
+        assertNull(email.getFalhouEm());
+        verify(repository).deleteAllInBatch(List.of());
+    }
+
+    @Test
+    void desisteDepoisDoLimiteEDescartaOCorpo() {
+        EmailOutbox email = pendente(1L, "a@bpweb.local");
+        email.setTentativas(1);
+        when(repository.reservarPendentes(anyInt())).thenReturn(List.of(email));
+
+        dispatcher(ServerSetupTest.SMTP.getPort() + 1000, 2).despacharLote();
+
+        assertEquals(2, email.getTentativas());
+        assertNotNull(email.getFalhouEm());
+        assertNull(email.getCorpo());
+    }
+
+    private EmailOutboxDispatcher dispatcher(int porta, int maximoTentativas) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(porta);
+        return new EmailOutboxDispatcher(repository, mailSender, mock(PlatformTransactionManager.class),
+                "noreply@bpweb.local", 50, maximoTentativas, 30, 3600);
+    }
+
+    private static EmailOutbox pendente(long id, String destinatario) {
+        return new EmailOutbox(id, destinatario, "Nova senha gerada - backpack", "<p>Olá</p>", 0,
+                OffsetDateTime.now(), null, null, OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,112 @@
+package com.backpack.bpweb.progresso.progressoAula.service;
+
+import com.backpack.bpweb.chore.materias.index.ConclusaoMateriasIndex;
+import com.backpack.bpweb.progresso.progressoAula.repository.ProgressoAulaRepository;
+import com.backpack.bpweb.progresso.progressoAula.repository.ProgressoAulaRepositoryCustom.AlteracaoProgressoAula;
+import com.backpack.bpweb.progresso.progressoAula.statusProgressoAula.entity.StatusProgressoAula;
+import com.backpack.bpweb.progresso.progressoAula.statusProgressoAula.repository.StatusProgressoAulaRepository;
+import com.backpack.bpweb.user.entity.Usuarios;
+import com.backpack.bpweb.user.estatistica.repository.EstatisticasUsuarioRepository;
+import com.backpack.bpweb.user.estatistica.service.AtividadeDiariaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * As contagens de conclusão saem do status anterior devolvido pelo repositório: {@code null} só para
+ * quem inseriu a linha. Os testes cobrem só essa contagem, com o repositório simulado; a trava de linha
+ * que garante o status anterior certo entre transações concorrentes fica no SQL do
+ * {@code ProgressoAulaRepositoryCustomImpl} e não é exercitada aqui.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProgressoAulaServiceTest {
+
+    private static final int USUARIO_ID = 7;
+    private static final int INICIADO = 1;
+    private static final int CONCLUIDO = 3;
+
+    @Mock
+    private ProgressoAulaRepository progressoAulaRepository;
+    @Mock
+    private StatusProgressoAulaRepository statusProgressoAulaRepository;
+    @Mock
+    private EstatisticasUsuarioRepository estatisticasUsuarioRepository;
+    @Mock
+    private AtividadeDiariaService atividadeDiariaService;
+    @Mock
+    private ConclusaoMateriasIndex conclusaoMateriasIndex;
+    @Mock
+    private PosicaoAulaBuffer posicaoAulaBuffer;
+    @InjectMocks
+    private ProgressoAulaService service;
+
+    @BeforeEach
+    void autenticar() {
+        Usuarios usuario = new Usuarios(USUARIO_ID, "Aluno", "aluno@bpweb.local", 20, null, null, null, 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+        when(statusProgressoAulaRepository.findAll()).thenReturn(List.of(
+                new StatusProgressoAula(INICIADO, "INICIADO"), new StatusProgressoAula(CONCLUIDO, "CONCLUIDO")));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void primeiraGravacaoConcluidaContaUmaConclusao() throws Exception {
+        when(progressoAulaRepository.gravarEmLote(eq(USUARIO_ID), eq(List.of(10)), eq(List.of(CONCLUIDO)), any()))
+                .thenReturn(List.of(new AlteracaoProgressoAula(10, null, CONCLUIDO)));
+
+        service.marcarProgresso(10, "CONCLUIDO");
+
+        verify(estatisticasUsuarioRepository).registrarAulaConcluida(eq(USUARIO_ID), eq(1), any());
+        verify(estatisticasUsuarioRepository, never()).removerAulasConcluidas(anyInt(), anyInt());
+        verify(conclusaoMateriasIndex).registrarConclusoes(USUARIO_ID, Map.of(10, true));
+        verify(posicaoAulaBuffer).descarregar(USUARIO_ID, List.of(10));
+        verify(atividadeDiariaService).registrarAulas(eq(USUARIO_ID), any(), eq(1));
+    }
+
+    @Test
+    void segundaGravacaoQueEncontraAulaConcluidaNaoContaDeNovo() throws Exception {
+        // A primeira gravação inseriu a linha; a segunda recebe do repositório o status já concluído.
+        when(progressoAulaRepository.gravarEmLote(eq(USUARIO_ID), eq(List.of(10)), eq(List.of(CONCLUIDO)), any()))
+                .thenReturn(List.of(new AlteracaoProgressoAula(10, null, CONCLUIDO)))
+                .thenReturn(List.of(new AlteracaoProgressoAula(10, CONCLUIDO, CONCLUIDO)));
+
+        service.marcarProgresso(10, "CONCLUIDO");
+        service.marcarProgresso(10, "CONCLUIDO");
+
+        verify(estatisticasUsuarioRepository).registrarAulaConcluida(eq(USUARIO_ID), eq(1), any());
+        verify(estatisticasUsuarioRepository).registrarAulaConcluida(eq(USUARIO_ID), eq(0), any());
+        verify(conclusaoMateriasIndex).registrarConclusoes(USUARIO_ID, Map.of(10, true));
+        verify(conclusaoMateriasIndex).registrarConclusoes(USUARIO_ID, Map.of());
+        verify(posicaoAulaBuffer, times(1)).descarregar(anyInt(), anyCollection());
+        verify(atividadeDiariaService, times(1)).registrarAulas(anyInt(), any(), anyInt());
+    }
+
+    @Test
+    void desmarcarAulaConcluidaDescontaUmaConclusao() throws Exception {
+        when(progressoAulaRepository.gravarEmLote(eq(USUARIO_ID), eq(List.of(10)), eq(List.of(INICIADO)), any()))
+                .thenReturn(List.of(new AlteracaoProgressoAula(10, CONCLUIDO, INICIADO)));
+
+        service.marcarProgresso(10, "INICIADO");
+
+        verify(estatisticasUsuarioRepository).removerAulasConcluidas(USUARIO_ID, 1);
+        verify(estatisticasUsuarioRepository, never()).registrarAulaConcluida(anyInt(), anyInt(), any());
+        verify(conclusaoMateriasIndex).registrarConclusoes(USUARIO_ID, Map.of(10, false));
+    }
+}